@@ -0,0 +1,100 @@
+#!/bin/bash
+
+# Runs the suite as duration-balanced shards side by side on this machine.
+# Every shard is its own JVM with its own browsers (and its own stand-in server port when
+# BASE_URL is local: the port of BASE_URL, or 8089 when it is not set, and up) and writes its
+# reports into target/shards/<i>/; at the end the Allure
+# results are merged into target/allure-results and the run-wide reports (step latencies,
+# selector profile, network conditions) into target/.
+# Shards split the cores between them: each gets cores / shards workers unless -Dworkers is given.
+# Usage: ./run-shards.sh [shards] [extra mvn args, e.g. -Dworkers=2]
+
+SHARDS="${1:-2}"
+shift
+SHARD_DIR=target/shards
+
+if ! [ "$SHARDS" -ge 1 ] 2>/dev/null; then
+    echo "❌ Number of shards must be a positive integer, got '$SHARDS'"
+    exit 1
+fi
+
+echo "Compiling once for all shards..."
+mvn -B -q test-compile || exit 1
+
+rm -rf "$SHARD_DIR"
+mkdir -p "$SHARD_DIR"
+
+# All shards must plan from the same durations, while each of them records into the live file
+if [ -f .test-durations.json ]; then
+    cp .test-durations.json "$SHARD_DIR/durations-snapshot.json"
+else
+    echo '{}' > "$SHARD_DIR/durations-snapshot.json"
+fi
+
+CORES=$(getconf _NPROCESSORS_ONLN 2>/dev/null || echo 2)
+WORKERS=$((CORES / SHARDS))
+[ "$WORKERS" -ge 1 ] || WORKERS=1
+
+# A local BASE_URL keeps its host, port and path; shard i runs on port + i - 1
+LOCAL_URL=false
+LOCAL_HOST=http://localhost
+BASE_PORT=8089
+LOCAL_PATH=
+if [ -z "$BASE_URL" ]; then
+    LOCAL_URL=true
+elif [[ "$BASE_URL" =~ ^(http://(localhost|127\.0\.0\.1)):([0-9]+)(/.*)?$ ]]; then
+    LOCAL_URL=true
+    LOCAL_HOST="${BASH_REMATCH[1]}"
+    BASE_PORT="${BASH_REMATCH[3]}"
+    LOCAL_PATH="${BASH_REMATCH[4]}"
+fi
+
+pids=()
+for i in $(seq 1 "$SHARDS"); do
+    mkdir -p "$SHARD_DIR/$i"
+    if [ "$LOCAL_URL" = true ]; then
+        shard_url="$LOCAL_HOST:$((BASE_PORT + i - 1))$LOCAL_PATH"
+    else
+        shard_url="$BASE_URL"
+    fi
+    echo "▶️  Shard $i/$SHARDS against $shard_url (log: $SHARD_DIR/$i/output.log)"
+    # -Dworkers in "$@" comes later and wins
+    BASE_URL="$shard_url" mvn -B surefire:test \
+        -Dworkers="$WORKERS" \
+        -Dshard.total="$SHARDS" -Dshard.index="$i" \
+        -Dtest.durations="$SHARD_DIR/durations-snapshot.json" \
+        -Dtest.durations.record=.test-durations.json \
+        -Dallure.results.directory="$PWD/$SHARD_DIR/$i/allure-results" \
+        -Dsurefire.reportsDirectory="$PWD/$SHARD_DIR/$i/surefire-reports" \
+        -Dstep.metrics.file="$PWD/$SHARD_DIR/$i/step-latencies.json" \
+        -Dselector.report="$PWD/$SHARD_DIR/$i/selector-profile.json" \
+        -Dnetwork.condition.report="$PWD/$SHARD_DIR/$i/network-conditions.json" \
+        "$@" > "$SHARD_DIR/$i/output.log" 2>&1 &
+    pids+=($!)
+done
+
+status=0
+for i in $(seq 1 "$SHARDS"); do
+    if wait "${pids[$((i - 1))]}"; then
+        echo "✅ Shard $i passed"
+    else
+        echo "❌ Shard $i failed, see $SHARD_DIR/$i/output.log"
+        status=1
+    fi
+done
+
+# Allure result files have unique names, so merging is a plain copy
+mkdir -p target/allure-results
+for i in $(seq 1 "$SHARDS"); do
+    if [ -d "$SHARD_DIR/$i/allure-results" ]; then
+        cp "$SHARD_DIR/$i/allure-results/"* target/allure-results/ 2>/dev/null
+    fi
+done
+echo "Allure results merged into target/allure-results"
+
+# Reports keep their histograms, so the merged percentiles are exact
+mvn -B -q exec:exec@shard-reports -Dshard.dir="$PWD/$SHARD_DIR" \
+    -Dallure.results.directory="$PWD/target/allure-results" \
+    || echo "⚠️ Could not merge the shard reports, see $SHARD_DIR/<i>/"
+
+exit $status
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import config.Config;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import server.StandInServer;
+
+/**
+ * Stand-in server plus one headless Chromium, shared by all benchmarks of a fork.
+ * Benchmarks always run against the local stand-in so results do not depend on the network.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkApp {
+
+    StandInServer server;
+    Playwright playwright;
+    Browser browser;
+
+    @Setup(Level.Trial)
+    public void start() {
+        if (!Config.LOCAL_BASE_URL) {
+            throw new IllegalStateException("Benchmarks run against the stand-in server; unset BASE_URL or point it at localhost");
+        }
+        server = StandInServer.forBaseUrl(Config.BASE_URL).start();
+        server.addUser(Config.USERNAME, Config.EMAIL, Config.PASSWORD);
+
+        playwright = Playwright.create();
+        browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        browser.close();
+        playwright.close();
+        server.close();
+    }
+}
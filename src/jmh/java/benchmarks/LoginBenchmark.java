@@ -0,0 +1,69 @@
+package benchmarks;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pages.LoginPage;
+import pages.MainPage;
+import pages.enums.LoginSubmitType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full UI login through {@link LoginPage#login} with both submit types.
+ *
+ * "cold" pays for a new context and page on every login, as every test does; "warm"
+ * reuses one context and only clears its cookies.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(2)
+@State(Scope.Thread)
+public class LoginBenchmark {
+
+    @Param({"CLICK", "ENTER"})
+    public LoginSubmitType submitType;
+
+    @Param({"warm", "cold"})
+    public String contextMode;
+
+    private BrowserContext warmContext;
+    private Page warmPage;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApp app) {
+        warmContext = app.browser.newContext();
+        warmPage = warmContext.newPage();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        warmContext.close();
+    }
+
+    @Benchmark
+    public MainPage login(BenchmarkApp app) {
+        if ("warm".equals(contextMode)) {
+            warmContext.clearCookies();
+            return new LoginPage(warmPage).login(Config.USERNAME, Config.PASSWORD, submitType);
+        }
+        try (BrowserContext context = app.browser.newContext()) {
+            return new LoginPage(context.newPage()).login(Config.USERNAME, Config.PASSWORD, submitType);
+        }
+    }
+}
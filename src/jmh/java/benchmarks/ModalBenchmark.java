@@ -0,0 +1,73 @@
+package benchmarks;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitForSelectorState;
+import components.ModalComponent;
+import config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pages.LoginPage;
+import pages.MainPage;
+import pages.enums.LoginSubmitType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MainPage#clickAddCard} and full {@link ModalComponent} fill/save cycles on a logged-in page.
+ * The page is reloaded before each invocation (not measured) so every call starts with the modal closed.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(2)
+@State(Scope.Thread)
+public class ModalBenchmark {
+
+    private BrowserContext context;
+    private Page page;
+    private MainPage mainPage;
+
+    @Setup(Level.Trial)
+    public void logIn(BenchmarkApp app) {
+        context = app.browser.newContext();
+        page = context.newPage();
+        mainPage = new LoginPage(page).login(Config.USERNAME, Config.PASSWORD, LoginSubmitType.CLICK);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetPage() {
+        mainPage.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ModalComponent clickAddCard() {
+        return mainPage.clickAddCard();
+    }
+
+    @Benchmark
+    public ModalComponent fillAndSave() {
+        ModalComponent modal = mainPage.clickAddCard();
+        modal.fillAndSave("What does JMH stand for?", "Java Microbenchmark Harness");
+        // The cycle ends when the app has stored the card and closed the modal
+        modal.getRoot().waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.HIDDEN));
+        return modal;
+    }
+}
@@ -0,0 +1,116 @@
+package load;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when virtual users start their next iteration.
+ *
+ * With a target rate (open model) a pacer thread issues arrivals at that rate, ramping
+ * linearly from zero over the ramp-up; idle virtual users pick them up. Arrivals are
+ * never queued beyond one per virtual user: when every user is busy and the backlog is
+ * full, the arrival is counted as missed, which means the users cannot sustain the rate.
+ *
+ * Without a rate (closed model) every user starts its next iteration as soon as the
+ * previous one ends; the ramp-up then staggers the users' first iterations instead.
+ */
+final class ArrivalSchedule {
+
+    private static final long PACER_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final double ratePerSecond;
+    private final long rampUpNanos;
+    private final Semaphore pending = new Semaphore(0);
+    private final int maxBacklog;
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+
+    private volatile boolean running;
+    private long startNanos;
+    private Thread pacer;
+
+    ArrivalSchedule(double ratePerSecond, long rampUpNanos, int users) {
+        this.ratePerSecond = ratePerSecond;
+        this.rampUpNanos = rampUpNanos;
+        this.maxBacklog = users;
+    }
+
+    boolean isOpen() {
+        return ratePerSecond > 0;
+    }
+
+    void start(long startNanos) {
+        this.startNanos = startNanos;
+        running = true;
+        if (isOpen()) {
+            pacer = new Thread(this::pace, "load-arrivals");
+            pacer.setDaemon(true);
+            pacer.start();
+        }
+    }
+
+    void stop() {
+        running = false;
+        if (pacer != null) {
+            pacer.interrupt();
+        }
+    }
+
+    /**
+     * Blocks until the calling virtual user should start an iteration.
+     * Returns false once the run is over.
+     */
+    boolean next() throws InterruptedException {
+        if (!isOpen()) {
+            return running;
+        }
+        while (running) {
+            if (pending.tryAcquire(50, TimeUnit.MILLISECONDS)) {
+                return running;
+            }
+        }
+        return false;
+    }
+
+    long issued() {
+        return issued.sum();
+    }
+
+    long missed() {
+        return missed.sum();
+    }
+
+    private void pace() {
+        long emitted = 0;
+        while (running) {
+            long due = arrivalsDue(System.nanoTime() - startNanos);
+            for (; emitted < due; emitted++) {
+                issued.increment();
+                if (pending.availablePermits() < maxBacklog) {
+                    pending.release();
+                } else {
+                    missed.increment();
+                }
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(PACER_TICK_NANOS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Number of arrivals the linear ramp followed by a constant rate has produced after the
+     * given time, i.e. the integral of the rate.
+     */
+    private long arrivalsDue(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        double rampSeconds = rampUpNanos / 1e9;
+        if (seconds < rampSeconds) {
+            return (long) (ratePerSecond * seconds * seconds / (2 * rampSeconds));
+        }
+        return (long) (ratePerSecond * (rampSeconds / 2 + (seconds - rampSeconds)));
+    }
+}
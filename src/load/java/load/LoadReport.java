@@ -0,0 +1,182 @@
+package load;
+
+import com.google.gson.GsonBuilder;
+import instrumentation.LatencyHistogram;
+import instrumentation.StepListener;
+import instrumentation.StepMetrics;
+import reporting.StepTimingReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the outcome of every iteration and prints / writes the run summary:
+ * throughput and error rate per scenario, latency percentiles per scenario and per
+ * page-object step (taken from {@link StepMetrics}), and a few error samples.
+ */
+final class LoadReport implements StepListener {
+
+    private static final int ERROR_SAMPLES = 5;
+
+    private final Map<LoginScenario, ScenarioStats> scenarios = new EnumMap<>(LoginScenario.class);
+    private final ConcurrentMap<String, LongAdder> stepFailures = new ConcurrentHashMap<>();
+
+    LoadReport() {
+        for (LoginScenario scenario : LoginScenario.values()) {
+            scenarios.put(scenario, new ScenarioStats());
+        }
+    }
+
+    void recordSuccess(LoginScenario scenario, long nanos) {
+        ScenarioStats stats = scenarios.get(scenario);
+        stats.latency.record(nanos);
+        stats.iterations.increment();
+    }
+
+    void recordError(LoginScenario scenario, long nanos, Throwable error) {
+        ScenarioStats stats = scenarios.get(scenario);
+        stats.latency.record(nanos);
+        stats.iterations.increment();
+        stats.errors.increment();
+        if (stats.errorSamples.size() < ERROR_SAMPLES) {
+            stats.errorSamples.add(error.getClass().getSimpleName() + ": " + firstLine(error.getMessage()));
+        }
+    }
+
+    @Override
+    public void stepFinished(String step, long nanos, Throwable failure) {
+        if (failure != null) {
+            stepFailures.computeIfAbsent(step, key -> new LongAdder()).increment();
+        }
+    }
+
+    long iterations() {
+        return scenarios.values().stream().mapToLong(stats -> stats.iterations.sum()).sum();
+    }
+
+    long errors() {
+        return scenarios.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+    }
+
+    Map<String, Object> toMap(Map<String, Object> run, double elapsedSeconds, ArrivalSchedule schedule) {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("iterations", iterations());
+        totals.put("errors", errors());
+        totals.put("errorRate", ratio(errors(), iterations()));
+        totals.put("throughputPerSecond", round(iterations() / elapsedSeconds));
+        if (schedule.isOpen()) {
+            totals.put("arrivalsIssued", schedule.issued());
+            totals.put("arrivalsMissed", schedule.missed());
+        }
+
+        Map<String, Object> perScenario = new LinkedHashMap<>();
+        scenarios.forEach((scenario, stats) -> {
+            long iterations = stats.iterations.sum();
+            if (iterations == 0) {
+                return;
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("iterations", iterations);
+            summary.put("errors", stats.errors.sum());
+            summary.put("errorRate", ratio(stats.errors.sum(), iterations));
+            summary.put("throughputPerSecond", round(iterations / elapsedSeconds));
+            summary.put("latency", StepTimingReport.summary(stats.latency));
+            summary.put("errorSamples", stats.errorSamples);
+            perScenario.put(scenario.id(), summary);
+        });
+
+        Map<String, Object> steps = new LinkedHashMap<>();
+        StepMetrics.histograms().forEach((step, histogram) -> {
+            Map<String, Object> summary = new LinkedHashMap<>(StepTimingReport.summary(histogram));
+            long failures = stepFailures.getOrDefault(step, new LongAdder()).sum();
+            summary.put("failures", failures);
+            summary.put("errorRate", ratio(failures, histogram.count()));
+            steps.put(step, summary);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("run", run);
+        report.put("elapsedSeconds", round(elapsedSeconds));
+        report.put("totals", totals);
+        report.put("scenarios", perScenario);
+        report.put("steps", steps);
+        return report;
+    }
+
+    void print(double elapsedSeconds, ArrivalSchedule schedule) {
+        System.out.printf(Locale.ROOT, "%n%-22s %8s %7s %8s %9s %9s %9s %9s%n",
+                "scenario", "iter", "errors", "iter/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        scenarios.forEach((scenario, stats) -> {
+            long iterations = stats.iterations.sum();
+            if (iterations > 0) {
+                printRow(scenario.id(), iterations, stats.errors.sum(), elapsedSeconds, stats.latency);
+            }
+        });
+
+        System.out.printf(Locale.ROOT, "%n%-46s %8s %7s %8s %9s %9s %9s %9s%n",
+                "step", "count", "fails", "/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        StepMetrics.histograms().forEach((step, histogram) -> printStepRow(step, histogram, elapsedSeconds));
+
+        System.out.printf(Locale.ROOT, "%n%d iterations in %.1f s (%.2f/s), %d errors (%.2f%%)%n",
+                iterations(), elapsedSeconds, iterations() / elapsedSeconds, errors(), 100 * ratio(errors(), iterations()));
+        if (schedule.isOpen() && schedule.missed() > 0) {
+            System.out.printf(Locale.ROOT, "⚠️ %d of %d arrivals missed: all virtual users were busy%n",
+                    schedule.missed(), schedule.issued());
+        }
+    }
+
+    static void write(Path file, Map<String, Object> report) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, new GsonBuilder().setPrettyPrinting().create().toJson(report), StandardCharsets.UTF_8);
+    }
+
+    private static void printRow(String name, long count, long errors, double seconds, LatencyHistogram latency) {
+        System.out.printf(Locale.ROOT, "%-22s %8d %7d %8.2f %9.1f %9.1f %9.1f %9.1f%n",
+                name, count, errors, count / seconds,
+                latency.percentileMillis(50), latency.percentileMillis(95),
+                latency.percentileMillis(99), latency.maxMillis());
+    }
+
+    private void printStepRow(String step, LatencyHistogram histogram, double seconds) {
+        System.out.printf(Locale.ROOT, "%-46s %8d %7d %8.2f %9.1f %9.1f %9.1f %9.1f%n",
+                step, histogram.count(), stepFailures.getOrDefault(step, new LongAdder()).sum(),
+                histogram.count() / seconds,
+                histogram.percentileMillis(50), histogram.percentileMillis(95),
+                histogram.percentileMillis(99), histogram.maxMillis());
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : Math.round(part * 10_000.0 / whole) / 10_000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+
+    private static final class ScenarioStats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder iterations = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Queue<String> errorSamples = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,131 @@
+package load;
+
+import config.Config;
+import config.Settings;
+import instrumentation.StepMetrics;
+import server.StandInServer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives N concurrent virtual users through the {@link LoginScenario} flows and reports
+ * throughput, error rates and per-step latency percentiles.
+ *
+ * Settings (system property or environment variable):
+ * <ul>
+ *   <li>load.users / LOAD_USERS - concurrent virtual users (default 5)</li>
+ *   <li>load.rampUp.seconds / LOAD_RAMP_UP_SECONDS - ramp-up before the steady state (default 10)</li>
+ *   <li>load.duration.seconds / LOAD_DURATION_SECONDS - steady state after the ramp-up (default 60)</li>
+ *   <li>load.rate / LOAD_RATE - target iterations per second over all users; 0 runs users back to back (default 0)</li>
+ *   <li>load.mix / LOAD_MIX - scenario weights (default "valid-login=70,non-existent-user=10,empty-username=10,empty-password=10")</li>
+ *   <li>load.report / LOAD_REPORT - JSON summary (default target/load-report.json)</li>
+ * </ul>
+ *
+ * A local BASE_URL (the default) starts the stand-in server for the run; any other BASE_URL
+ * is loaded as is, so only point it at an environment meant to take the traffic.
+ */
+public class LoadRunner {
+
+    private static final long PROGRESS_INTERVAL_SECONDS = 10;
+
+    private final int users = Math.max(1, Settings.getInt("load.users", "LOAD_USERS", 5));
+    private final long rampUpSeconds = Math.max(0, Settings.getLong("load.rampUp.seconds", "LOAD_RAMP_UP_SECONDS", 10));
+    private final long durationSeconds = Math.max(1, Settings.getLong("load.duration.seconds", "LOAD_DURATION_SECONDS", 60));
+    private final double rate = Double.parseDouble(Settings.get("load.rate", "LOAD_RATE", "0"));
+    private final ScenarioMix mix = ScenarioMix.parse(Settings.get("load.mix", "LOAD_MIX",
+            "valid-login=70,non-existent-user=10,empty-username=10,empty-password=10"));
+    private final Path reportFile = Paths.get(Settings.get("load.report", "LOAD_REPORT", "target/load-report.json"));
+    private final boolean headless = Settings.getBoolean("headless", "HEADLESS", true);
+
+    public static void main(String[] args) throws Exception {
+        StandInServer server = null;
+        if (Config.LOCAL_BASE_URL) {
+            server = StandInServer.forBaseUrl(Config.BASE_URL).start();
+            server.addUser(Config.USERNAME, Config.EMAIL, Config.PASSWORD);
+            System.out.println("Stand-in server is listening on " + Config.BASE_URL);
+        }
+        try {
+            new LoadRunner().run();
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    void run() throws InterruptedException, IOException {
+        System.out.printf(Locale.ROOT, "Load against %s: %d users, ramp-up %d s, steady %d s, %s, mix %s%n",
+                Config.BASE_URL, users, rampUpSeconds, durationSeconds,
+                rate > 0 ? "target " + rate + " iter/s" : "closed loop", mix);
+
+        LoadReport report = new LoadReport();
+        StepMetrics.addListener(report);
+        ArrivalSchedule schedule = new ArrivalSchedule(rate, TimeUnit.SECONDS.toNanos(rampUpSeconds), users);
+        CountDownLatch ready = new CountDownLatch(users);
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            // Closed model: stagger first iterations over the ramp-up; open model: the rate ramps instead
+            long startDelay = schedule.isOpen() ? 0 : TimeUnit.SECONDS.toNanos(rampUpSeconds) * i / users;
+            VirtualUser user = new VirtualUser(i, headless, startDelay, mix, schedule, report, ready, go);
+            Thread thread = new Thread(user, "virtual-user-" + i);
+            virtualUsers.add(user);
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Browser launches are not part of the measurement
+        ready.await();
+        long failedLaunches = virtualUsers.stream().filter(user -> user.launchFailure() != null).count();
+        if (failedLaunches > 0) {
+            System.err.println("❌ " + failedLaunches + " virtual user(s) could not launch a browser: "
+                    + virtualUsers.stream().filter(user -> user.launchFailure() != null)
+                    .findFirst().map(user -> user.launchFailure().getMessage()).orElse(""));
+        }
+
+        long start = System.nanoTime();
+        schedule.start(start);
+        go.countDown();
+
+        long endNanos = start + TimeUnit.SECONDS.toNanos(rampUpSeconds + durationSeconds);
+        while (System.nanoTime() < endNanos) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(endNanos - System.nanoTime(), TimeUnit.SECONDS.toNanos(PROGRESS_INTERVAL_SECONDS)));
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf(Locale.ROOT, "  %5.0f s: %d iterations (%.2f/s), %d errors%n",
+                    elapsed, report.iterations(), report.iterations() / elapsed, report.errors());
+        }
+        schedule.stop();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // In-flight iterations finish after the stop, so they are counted against the full time
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        StepMetrics.removeListener(report);
+
+        report.print(elapsedSeconds, schedule);
+        LoadReport.write(reportFile, report.toMap(runSettings(), elapsedSeconds, schedule));
+        System.out.println("Load report written to " + reportFile.toAbsolutePath());
+    }
+
+    private Map<String, Object> runSettings() {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("baseUrl", Config.BASE_URL);
+        run.put("users", users);
+        run.put("rampUpSeconds", rampUpSeconds);
+        run.put("durationSeconds", durationSeconds);
+        run.put("targetRatePerSecond", rate);
+        run.put("mix", mix.toString());
+        return run;
+    }
+}
@@ -0,0 +1,78 @@
+package load;
+
+import com.microsoft.playwright.Page;
+import config.Config;
+import pages.LoginPage;
+import pages.MainPage;
+import pages.enums.LoginSubmitType;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static pages.LoginPage.EMPTY_PASSWORD_HINT;
+import static pages.LoginPage.EMPTY_USERNAME_HINT;
+import static pages.LoginPage.INVALID_USERNAME_OR_PASSWORD_HINT;
+
+/**
+ * The login flows a virtual user can run, built from the same {@link LoginPage} methods
+ * the functional tests use. Every flow waits for its expected outcome, so an iteration
+ * that returns normally is a success and anything thrown counts as an error.
+ *
+ * Wrong-password traffic goes to random, non-existent accounts: hammering the real test
+ * account with bad passwords would lock it for every other virtual user.
+ */
+enum LoginScenario {
+
+    VALID_LOGIN {
+        @Override
+        void run(Page page) {
+            MainPage mainPage = new LoginPage(page).login(Config.EMAIL, Config.PASSWORD, LoginSubmitType.CLICK);
+            if (!mainPage.isLogoutButtonDisplayed()) {
+                throw new IllegalStateException("Logout button not shown after login");
+            }
+        }
+    },
+
+    NON_EXISTENT_USER {
+        @Override
+        void run(Page page) {
+            String login = "loaduser" + Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+            new LoginPage(page)
+                    .loginWithNonExistentLoginAndPassword(login, "wrong-password")
+                    .waitForHint(INVALID_USERNAME_OR_PASSWORD_HINT);
+        }
+    },
+
+    EMPTY_USERNAME {
+        @Override
+        void run(Page page) {
+            new LoginPage(page)
+                    .loginWithEmptyEmail(Config.PASSWORD)
+                    .waitForHint(EMPTY_USERNAME_HINT);
+        }
+    },
+
+    EMPTY_PASSWORD {
+        @Override
+        void run(Page page) {
+            new LoginPage(page)
+                    .loginWithEmptyPassword(Config.EMAIL)
+                    .waitForHint(EMPTY_PASSWORD_HINT);
+        }
+    };
+
+    abstract void run(Page page);
+
+    String id() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static LoginScenario byId(String id) {
+        for (LoginScenario scenario : values()) {
+            if (scenario.id().equalsIgnoreCase(id.trim())) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load scenario '" + id + "'");
+    }
+}
@@ -0,0 +1,72 @@
+package load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted choice of {@link LoginScenario}s, parsed from e.g.
+ * "valid-login=70,non-existent-user=10,empty-username=10,empty-password=10".
+ */
+final class ScenarioMix {
+
+    private final List<LoginScenario> scenarios = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private ScenarioMix(Map<LoginScenario, Integer> weights) {
+        cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        for (Map.Entry<LoginScenario, Integer> weight : weights.entrySet()) {
+            total += weight.getValue();
+            cumulativeWeights[scenarios.size()] = total;
+            scenarios.add(weight.getKey());
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Load scenario mix needs at least one positive weight");
+        }
+        this.totalWeight = total;
+    }
+
+    static ScenarioMix parse(String mix) {
+        Map<LoginScenario, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.split("=", 2);
+            int weight = pair.length == 2 ? Integer.parseInt(pair[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in load scenario mix: " + part);
+            }
+            weights.merge(LoginScenario.byId(pair[0]), weight, Integer::sum);
+        }
+        return new ScenarioMix(weights);
+    }
+
+    LoginScenario next() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            if (text.length() > 0) {
+                text.append(',');
+            }
+            text.append(scenarios.get(i).id()).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return text.toString();
+    }
+}
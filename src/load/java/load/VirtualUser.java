@@ -0,0 +1,110 @@
+package load;
+
+import browser.ContextFactory;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import network.RequestFilter;
+
+import java.util.concurrent.CountDownLatch;
+
+import static instrumentation.StepMetrics.time;
+
+/**
+ * One simulated user on its own thread. Playwright is not thread-safe, so every virtual
+ * user owns a Playwright driver and a Chromium; each iteration runs in a brand-new
+ * browser context, which is cheap compared to the browser itself.
+ */
+final class VirtualUser implements Runnable {
+
+    private final int index;
+    private final boolean headless;
+    private final long startDelayNanos;
+    private final ScenarioMix mix;
+    private final ArrivalSchedule schedule;
+    private final LoadReport report;
+    private final CountDownLatch ready;
+    private final CountDownLatch go;
+
+    private volatile Throwable launchFailure;
+
+    VirtualUser(int index, boolean headless, long startDelayNanos, ScenarioMix mix, ArrivalSchedule schedule,
+                LoadReport report, CountDownLatch ready, CountDownLatch go) {
+        this.index = index;
+        this.headless = headless;
+        this.startDelayNanos = startDelayNanos;
+        this.mix = mix;
+        this.schedule = schedule;
+        this.report = report;
+        this.ready = ready;
+        this.go = go;
+    }
+
+    Throwable launchFailure() {
+        return launchFailure;
+    }
+
+    @Override
+    public void run() {
+        Playwright playwright;
+        Browser browser;
+        try {
+            playwright = Playwright.create();
+            browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(headless));
+        } catch (RuntimeException e) {
+            launchFailure = e;
+            ready.countDown();
+            return;
+        }
+        ready.countDown();
+
+        try {
+            go.await();
+            Thread.sleep(startDelayNanos / 1_000_000, (int) (startDelayNanos % 1_000_000));
+            while (schedule.next()) {
+                iteration(browser, mix.next());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                browser.close();
+            } finally {
+                playwright.close();
+            }
+        }
+    }
+
+    private void iteration(Browser browser, LoginScenario scenario) {
+        BrowserContext context;
+        try {
+            context = time("VirtualUser.newContext", () -> newContext(browser));
+        } catch (RuntimeException e) {
+            report.recordError(scenario, 0, e);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            scenario.run(context.pages().get(0));
+            report.recordSuccess(scenario, System.nanoTime() - start);
+        } catch (RuntimeException | AssertionError e) {
+            report.recordError(scenario, System.nanoTime() - start, e);
+        } finally {
+            try {
+                context.close();
+            } catch (RuntimeException e) {
+                System.err.println("Virtual user " + index + " failed to close its context: " + e.getMessage());
+            }
+        }
+    }
+
+    private static BrowserContext newContext(Browser browser) {
+        BrowserContext context = browser.newContext();
+        context.setDefaultTimeout(ContextFactory.DEFAULT_TIMEOUT_MS);
+        context.setDefaultNavigationTimeout(ContextFactory.DEFAULT_TIMEOUT_MS);
+        RequestFilter.install(context);
+        context.newPage();
+        return context;
+    }
+}
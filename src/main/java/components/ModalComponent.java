@@ -2,6 +2,13 @@ package components;
 
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import pages.enums.InteractionMode;
+
+import java.util.List;
+
+import static instrumentation.SelectorProfiler.actionable;
+import static instrumentation.SelectorProfiler.probe;
+import static instrumentation.StepMetrics.time;
 
 public class ModalComponent {
 
@@ -14,6 +21,25 @@ public class ModalComponent {
     private final Locator questionInput;
     private final Locator answerInput;
     private static final String MODAL_TITLE = "Create New Flash Card";
+    private static final String QUESTION_INPUT = "#questionInput";
+    private static final String ANSWER_INPUT = "#answerInput";
+    private static final String SAVE_BUTTON = "#saveBtn";
+
+    /**
+     * Batched fill and save, run against the modal root: native value setter plus input and
+     * change events per field, then a click on Save.
+     */
+    private static final String FILL_AND_SAVE_SCRIPT = "(modal, [questionSelector, answerSelector, saveSelector, question, answer]) => {"
+            + "  const setValue = (field, value) => {"
+            + "    field.focus();"
+            + "    Object.getOwnPropertyDescriptor(Object.getPrototypeOf(field), 'value').set.call(field, value);"
+            + "    field.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "    field.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "  };"
+            + "  setValue(modal.querySelector(questionSelector), question);"
+            + "  setValue(modal.querySelector(answerSelector), answer);"
+            + "  modal.querySelector(saveSelector).click();"
+            + "}";
 
     public String getModalTitle() {
         return MODAL_TITLE;
@@ -28,9 +54,9 @@ public class ModalComponent {
         this.title = root.locator("h2");
         // Кнопки и поля внутри модалки
         this.cancelBtn = root.locator("#cancelBtn");
-        this.saveBtn = root.locator("#saveBtn");
-        this.questionInput = root.locator("#questionInput");
-        this.answerInput = root.locator("#answerInput");
+        this.saveBtn = root.locator(SAVE_BUTTON);
+        this.questionInput = root.locator(QUESTION_INPUT);
+        this.answerInput = root.locator(ANSWER_INPUT);
     }
 
     public Locator getRoot() {
@@ -42,22 +68,39 @@ public class ModalComponent {
     }
 
     public boolean isVisible() {
-        return root.isVisible();
+        return time("ModalComponent.isVisible", () -> probe(root).isVisible());
     }
 
     public void clickCancel() {
-        cancelBtn.click();
+        time("ModalComponent.clickCancel", () -> actionable(cancelBtn).click());
     }
 
     public void clickSave() {
-        saveBtn.click();
+        time("ModalComponent.clickSave", () -> actionable(saveBtn).click());
     }
 
     public void fillQuestion(String text) {
-        questionInput.fill(text);
+        time("ModalComponent.fillQuestion", () -> actionable(questionInput).fill(text));
     }
 
     public void fillAnswer(String text) {
-        answerInput.fill(text);
+        time("ModalComponent.fillAnswer", () -> actionable(answerInput).fill(text));
+    }
+
+    /**
+     * Fills question and answer and saves: field by field, or in one driver call
+     * when {@link InteractionMode#BATCHED} is on.
+     */
+    public void fillAndSave(String question, String answer) {
+        time("ModalComponent.fillAndSave", () -> {
+            if (InteractionMode.current() == InteractionMode.BATCHED) {
+                actionable(root).evaluate(FILL_AND_SAVE_SCRIPT,
+                        List.of(QUESTION_INPUT, ANSWER_INPUT, SAVE_BUTTON, question, answer));
+                return;
+            }
+            fillQuestion(question);
+            fillAnswer(answer);
+            clickSave();
+        });
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,17 @@
 package config;
 
+import java.net.URI;
+
 public class Config {
 
+    /**
+     * Application under test. Unset or local (localhost / 127.0.0.1) means the embedded
+     * stand-in server is started on that port; set BASE_URL=https://pyavchik.space for the real site.
+     */
     public static final String BASE_URL =
-            System.getenv().getOrDefault("BASE_URL", "https://pyavchik.space");
+            System.getenv().getOrDefault("BASE_URL", "http://localhost:8089");
+
+    public static final boolean LOCAL_BASE_URL = isLocal(BASE_URL);
 
     public static final String USERNAME =
             System.getenv("TEST_USERNAME");
@@ -22,6 +30,11 @@ public class Config {
 
     public static final String EMAIL_INVALID_FORMAT = "user@";
 
+    /**
+     * Failed logins after which the app locks an account, overridable with -Dlockout.attempts.
+     */
+    public static final int LOCKOUT_ATTEMPTS = Settings.getInt("lockout.attempts", "LOCKOUT_ATTEMPTS", 5);
+
     static {
         if (USERNAME == null || PASSWORD == null) {
             throw new RuntimeException(
@@ -29,4 +42,9 @@ public class Config {
             );
         }
     }
+
+    private static boolean isLocal(String url) {
+        String host = URI.create(url).getHost();
+        return "localhost".equalsIgnoreCase(host) || "127.0.0.1".equals(host) || "[::1]".equals(host);
+    }
 }
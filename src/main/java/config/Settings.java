@@ -0,0 +1,28 @@
+package config;
+
+/**
+ * Optional tuning knobs for the test infrastructure.
+ * Kept apart from {@link Config} so reading them does not require credentials.
+ */
+public class Settings {
+
+    /**
+     * Reads a setting: system property first (-Dname=value),
+     * then environment variable, then the given default.
+     */
+    public static String get(String property, String envVar, String defaultValue) {
+        return System.getProperty(property, System.getenv().getOrDefault(envVar, defaultValue));
+    }
+
+    public static boolean getBoolean(String property, String envVar, boolean defaultValue) {
+        return Boolean.parseBoolean(get(property, envVar, String.valueOf(defaultValue)));
+    }
+
+    public static int getInt(String property, String envVar, int defaultValue) {
+        return Integer.parseInt(get(property, envVar, String.valueOf(defaultValue)).trim());
+    }
+
+    public static long getLong(String property, String envVar, long defaultValue) {
+        return Long.parseLong(get(property, envVar, String.valueOf(defaultValue)).trim());
+    }
+}
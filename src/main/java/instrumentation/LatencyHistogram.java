@@ -0,0 +1,140 @@
+package instrumentation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets (about 5% wide).
+ *
+ * Memory is fixed no matter how many samples are recorded, and percentiles are
+ * reported as the upper bound of the bucket they fall in, so they are accurate
+ * to within one bucket width. Histograms written out with {@link #state()} can be read back
+ * and added up, e.g. to combine the reports of several shards without losing precision.
+ */
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.05;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 512;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+    private final AtomicLong minMicros = new AtomicLong(Long.MAX_VALUE);
+
+    public void record(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        counts.incrementAndGet(bucketOf(micros));
+        total.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+        minMicros.accumulateAndGet(micros, Math::min);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public double meanMillis() {
+        long count = count();
+        return count == 0 ? 0 : sumMicros.sum() / 1_000.0 / count;
+    }
+
+    public double maxMillis() {
+        return maxMicros.get() / 1_000.0;
+    }
+
+    public double minMillis() {
+        long min = minMicros.get();
+        return min == Long.MAX_VALUE ? 0 : min / 1_000.0;
+    }
+
+    /**
+     * @param percentile between 0 and 100, e.g. 99 for p99
+     */
+    public double percentileMillis(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBoundMicros(bucket), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    /**
+     * Adds every sample of another histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.addAndGet(bucket, other.counts.get(bucket));
+        }
+        total.add(other.total.sum());
+        sumMicros.add(other.sumMicros.sum());
+        maxMicros.accumulate(other.maxMicros.get());
+        minMicros.accumulateAndGet(other.minMicros.get(), Math::min);
+    }
+
+    /**
+     * Everything needed to rebuild this histogram with {@link #fromState(Map)}: the non-empty
+     * buckets by index and the exact sum, minimum and maximum in microseconds.
+     */
+    public Map<String, Object> state() {
+        Map<String, Long> buckets = new TreeMap<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long count = counts.get(bucket);
+            if (count > 0) {
+                buckets.put(String.valueOf(bucket), count);
+            }
+        }
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("sumMicros", sumMicros.sum());
+        state.put("minMicros", minMicros.get() == Long.MAX_VALUE ? 0 : minMicros.get());
+        state.put("maxMicros", maxMicros.get());
+        state.put("buckets", buckets);
+        return state;
+    }
+
+    /**
+     * Rebuilds a histogram from {@link #state()}, e.g. as parsed back from JSON
+     * (numbers may come back as any {@link Number}).
+     */
+    public static LatencyHistogram fromState(Map<String, ?> state) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Map<?, ?> buckets = (Map<?, ?>) state.get("buckets");
+        long total = 0;
+        for (Map.Entry<?, ?> bucket : buckets.entrySet()) {
+            long count = ((Number) bucket.getValue()).longValue();
+            histogram.counts.addAndGet(Integer.parseInt(bucket.getKey().toString()), count);
+            total += count;
+        }
+        if (total > 0) {
+            histogram.total.add(total);
+            histogram.sumMicros.add(((Number) state.get("sumMicros")).longValue());
+            histogram.maxMicros.accumulate(((Number) state.get("maxMicros")).longValue());
+            histogram.minMicros.set(((Number) state.get("minMicros")).longValue());
+        }
+        return histogram;
+    }
+
+    private static int bucketOf(long micros) {
+        int bucket = (int) (Math.log(micros) / LOG_GROWTH);
+        return Math.min(BUCKETS - 1, bucket);
+    }
+
+    private static double upperBoundMicros(int bucket) {
+        return Math.pow(GROWTH, bucket + 1);
+    }
+}
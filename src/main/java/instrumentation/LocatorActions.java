@@ -0,0 +1,48 @@
+package instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the locator actions page objects perform (fill, click, waitFor, isVisible, ...),
+ * the number batched interactions bring down.
+ *
+ * Everything is counted at one place: every locator page objects act on passes through
+ * {@link SelectorProfiler#actionable} or {@link SelectorProfiler#probe}, and each pass is one
+ * action. It approximates the round trips to the Playwright driver, it does not measure them:
+ * one action may take several round trips, and navigations and the page metrics' own
+ * script calls are not counted. Per test counting works like {@link StepMetrics} traces:
+ * started and stopped on the test's thread.
+ */
+public class LocatorActions {
+
+    private static final LongAdder TOTAL = new LongAdder();
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    private LocatorActions() {
+    }
+
+    static void record() {
+        TOTAL.increment();
+        long[] current = CURRENT.get();
+        if (current != null) {
+            current[0]++;
+        }
+    }
+
+    public static void start() {
+        CURRENT.set(new long[1]);
+    }
+
+    /**
+     * Stops counting on the current thread and returns the actions counted since {@link #start()}.
+     */
+    public static long stop() {
+        long[] current = CURRENT.get();
+        CURRENT.remove();
+        return current == null ? 0 : current[0];
+    }
+
+    public static long total() {
+        return TOTAL.sum();
+    }
+}
@@ -0,0 +1,175 @@
+package instrumentation;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.Sizes;
+import config.Settings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Collects web performance numbers after the page objects load a page (-Dperf.metrics=true).
+ *
+ * Navigation Timing and paint timing are read from the browser's performance timeline.
+ * LCP, layout shifts and long tasks are only reported to observers, so {@link #install}
+ * adds an init script that observes them from the start of every document. Page objects
+ * call {@link #capture} right after a load, outside their timed step; per test the
+ * captures are kept like {@link StepMetrics} traces, on the test's thread.
+ *
+ * LCP is the largest paint so far: the browser only finalizes it on input, so it is the
+ * value at capture time.
+ *
+ * With -Dperf.network=true the context also records every request that finishes, and a
+ * capture takes the ones finished since the previous capture on that context: everything
+ * the navigation (and, after a login, the form submission) loaded. URL, type, status,
+ * transferred bytes and duration are read at capture time, two driver round trips per
+ * request, so this is off by default as well. When both are disabled, nothing is
+ * installed or evaluated.
+ */
+public class PageMetrics {
+
+    private static final boolean TIMING = Settings.getBoolean("perf.metrics", "PERF_METRICS", false);
+    private static final boolean NETWORK = Settings.getBoolean("perf.network", "PERF_NETWORK", false);
+
+    private static final String OBSERVER_SCRIPT = "(() => {\n"
+            + "  if (window.__pageMetrics) return;\n"
+            + "  const metrics = window.__pageMetrics = { lcp: null, cls: 0, longTasks: 0, longTaskMs: 0 };\n"
+            + "  const observe = (type, onEntry) => {\n"
+            + "    try {\n"
+            + "      new PerformanceObserver(list => list.getEntries().forEach(onEntry)).observe({ type, buffered: true });\n"
+            + "    } catch (e) {\n"
+            + "      // entry type not supported by this browser\n"
+            + "    }\n"
+            + "  };\n"
+            + "  observe('largest-contentful-paint', entry => { metrics.lcp = entry.startTime; });\n"
+            + "  observe('layout-shift', entry => { if (!entry.hadRecentInput) metrics.cls += entry.value; });\n"
+            + "  observe('longtask', entry => { metrics.longTasks++; metrics.longTaskMs += entry.duration; });\n"
+            + "})();";
+
+    // Waits a frame so observers have seen this load's entries
+    private static final String CAPTURE_SCRIPT = "async () => {\n"
+            + "  await new Promise(resolve => requestAnimationFrame(() => setTimeout(resolve, 0)));\n"
+            + "  const nav = performance.getEntriesByType('navigation')[0];\n"
+            + "  const paint = name => { const entry = performance.getEntriesByName(name)[0]; return entry ? entry.startTime : null; };\n"
+            + "  const observed = window.__pageMetrics || {};\n"
+            + "  return {\n"
+            + "    ttfb: nav ? nav.responseStart : null,\n"
+            + "    domContentLoaded: nav ? nav.domContentLoadedEventEnd : null,\n"
+            + "    load: nav ? nav.loadEventEnd : null,\n"
+            + "    firstPaint: paint('first-paint'),\n"
+            + "    firstContentfulPaint: paint('first-contentful-paint'),\n"
+            + "    largestContentfulPaint: observed.lcp ?? null,\n"
+            + "    cumulativeLayoutShift: observed.cls ?? null,\n"
+            + "    longTasks: observed.longTasks ?? null,\n"
+            + "    longTaskMs: observed.longTaskMs ?? null\n"
+            + "  };\n"
+            + "}";
+
+    private static final ThreadLocal<List<PagePerformance>> TRACE = new ThreadLocal<>();
+    private static final Map<BrowserContext, List<Request>> FINISHED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private PageMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return TIMING || NETWORK;
+    }
+
+    /**
+     * Observes LCP, layout shifts and long tasks in every page of a new context,
+     * and records the context's requests.
+     */
+    public static void install(BrowserContext context) {
+        if (TIMING) {
+            context.addInitScript(OBSERVER_SCRIPT);
+        }
+        if (NETWORK) {
+            List<Request> finished = Collections.synchronizedList(new ArrayList<>());
+            FINISHED.put(context, finished);
+            context.onRequestFinished(finished::add);
+            context.onClose(FINISHED::remove);
+        }
+    }
+
+    /**
+     * Reads the numbers of the page that just loaded. Never throws: a page that cannot be
+     * measured is reported and skipped.
+     */
+    public static void capture(Page page, String pageName) {
+        if (!isEnabled()) {
+            return;
+        }
+        List<PagePerformance> trace = TRACE.get();
+        if (trace == null) {
+            return;
+        }
+        try {
+            Map<String, Double> metrics = new LinkedHashMap<>();
+            if (TIMING) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> values = (Map<String, Object>) page.evaluate(CAPTURE_SCRIPT);
+                values.forEach((name, value) -> {
+                    if (value instanceof Number) {
+                        metrics.put(name, ((Number) value).doubleValue());
+                    }
+                });
+            }
+            List<PageResource> resources = NETWORK ? drainResources(page.context()) : List.of();
+            if (NETWORK) {
+                metrics.put("requests", (double) resources.size());
+                metrics.put("transferBytes", (double) resources.stream().mapToLong(PageResource::getTransferBytes).sum());
+            }
+            trace.add(new PagePerformance(pageName, page.url(), metrics, resources));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to capture page metrics of " + pageName + ": " + e.getMessage());
+        }
+    }
+
+    private static List<PageResource> drainResources(BrowserContext context) {
+        List<Request> finished = FINISHED.get(context);
+        if (finished == null) {
+            return List.of();
+        }
+        List<Request> requests;
+        synchronized (finished) {
+            requests = new ArrayList<>(finished);
+            finished.clear();
+        }
+        List<PageResource> resources = new ArrayList<>();
+        for (Request request : requests) {
+            if (!request.url().startsWith("http")) {
+                continue;
+            }
+            Response response = request.response();
+            Sizes sizes = request.sizes();
+            double end = request.timing().responseEnd;
+            resources.add(new PageResource(
+                    request.url(),
+                    request.resourceType(),
+                    response != null ? response.status() : 0,
+                    (long) sizes.responseHeadersSize + sizes.responseBodySize,
+                    end >= 0 ? end : -1));
+        }
+        return resources;
+    }
+
+    public static void startTrace() {
+        TRACE.set(new ArrayList<>());
+    }
+
+    /**
+     * Stops the current thread's trace and returns its captures in load order.
+     */
+    public static List<PagePerformance> stopTrace() {
+        List<PagePerformance> trace = TRACE.get();
+        TRACE.remove();
+        return trace == null ? List.of() : trace;
+    }
+}
@@ -0,0 +1,52 @@
+package instrumentation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Web performance numbers of one page load, as captured by {@link PageMetrics}.
+ *
+ * Metrics are keyed by name: times in milliseconds from the start of the navigation
+ * (ttfb, domContentLoaded, load, firstPaint, firstContentfulPaint, largestContentfulPaint),
+ * longTaskMs as a total, longTasks as a count and cumulativeLayoutShift as a score.
+ * With network recording on, requests and transferBytes sum up the page's resources.
+ * A metric that was not recorded is missing from the map.
+ */
+public class PagePerformance {
+
+    private final String page;
+    private final String url;
+    private final Map<String, Double> metrics;
+    private final List<PageResource> resources;
+
+    PagePerformance(String page, String url, Map<String, Double> metrics, List<PageResource> resources) {
+        this.page = page;
+        this.url = url;
+        this.metrics = Collections.unmodifiableMap(metrics);
+        this.resources = List.copyOf(resources);
+    }
+
+    /**
+     * The page's name in budgets and reports, e.g. "login", "main" or "main-after-login".
+     */
+    public String getPage() {
+        return page;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, Double> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Requests that finished since the previous capture on the same context, in finishing
+     * order; empty unless network recording is on.
+     */
+    public List<PageResource> getResources() {
+        return resources;
+    }
+}
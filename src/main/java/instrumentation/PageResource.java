@@ -0,0 +1,50 @@
+package instrumentation;
+
+/**
+ * One finished request made while a page loaded, as recorded by {@link PageMetrics}.
+ */
+public class PageResource {
+
+    private final String url;
+    private final String type;
+    private final int status;
+    private final long transferBytes;
+    private final double millis;
+
+    PageResource(String url, String type, int status, long transferBytes, double millis) {
+        this.url = url;
+        this.type = type;
+        this.status = status;
+        this.transferBytes = transferBytes;
+        this.millis = millis;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Playwright resource type, e.g. "document", "script" or "fetch".
+     */
+    public String getType() {
+        return type;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Response headers plus the encoded (as transferred) response body.
+     */
+    public long getTransferBytes() {
+        return transferBytes;
+    }
+
+    /**
+     * From the start of the request until the last response byte; -1 if the browser did not report it.
+     */
+    public double getMillis() {
+        return millis;
+    }
+}
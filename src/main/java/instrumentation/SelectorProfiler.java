@@ -0,0 +1,122 @@
+package instrumentation;
+
+import com.microsoft.playwright.Locator;
+import config.Settings;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Measures how the locators used by page objects resolve (-Dselector.profile=true).
+ *
+ * Page objects pass every locator through {@link #actionable(Locator)} right before acting
+ * on it, or through {@link #probe(Locator)} before a check that must not wait. When
+ * profiling is on, an actionable locator is polled with count() until it matches: the
+ * time that takes is its resolution time, every empty poll is a retry, and the duration
+ * of a single query shows what the selector engine itself costs (CSS vs XPath vs role).
+ * A probe only records the single query. Profiling adds those queries before the real
+ * action, so leave it off for timing-sensitive runs; when off, both methods return the
+ * locator untouched.
+ *
+ * Both methods also count the action that follows as one locator action
+ * ({@link LocatorActions}); the profiler's own queries are not counted.
+ */
+public class SelectorProfiler {
+
+    private static final boolean ENABLED = Settings.getBoolean("selector.profile", "SELECTOR_PROFILE", false);
+    private static final long POLL_INTERVAL_MS = 25;
+    private static final long RESOLVE_TIMEOUT_NANOS = Settings.getLong(
+            "selector.profile.timeout.ms", "SELECTOR_PROFILE_TIMEOUT_MS", 7_000) * 1_000_000;
+
+    private static final ConcurrentMap<String, SelectorStats> STATS = new ConcurrentHashMap<>();
+
+    private SelectorProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Records how long the locator takes to match, then returns it for the action.
+     * Never throws: a locator that does not match in time is counted as a timeout and
+     * left for the action itself to fail on.
+     */
+    public static Locator actionable(Locator locator) {
+        LocatorActions.record();
+        if (!ENABLED) {
+            return locator;
+        }
+        SelectorStats stats = statsFor(locator);
+        long start = System.nanoTime();
+        int retries = 0;
+        try {
+            while (true) {
+                long queryStart = System.nanoTime();
+                int matches = locator.count();
+                long now = System.nanoTime();
+                if (retries == 0) {
+                    stats.query.record(now - queryStart);
+                }
+                if (matches > 0) {
+                    break;
+                }
+                if (now - start > RESOLVE_TIMEOUT_NANOS) {
+                    stats.timeouts.increment();
+                    break;
+                }
+                retries++;
+                locator.page().waitForTimeout(POLL_INTERVAL_MS);
+            }
+        } catch (RuntimeException e) {
+            // The page went away under us; the action will report it
+            return locator;
+        }
+        stats.resolution.record(System.nanoTime() - start);
+        stats.retries.add(retries);
+        if (retries > 0) {
+            stats.retried.increment();
+        }
+        return locator;
+    }
+
+    /**
+     * Records the cost of a single query for a locator used in a check that must not wait
+     * (e.g. isVisible()), then returns it.
+     */
+    public static Locator probe(Locator locator) {
+        LocatorActions.record();
+        if (!ENABLED) {
+            return locator;
+        }
+        try {
+            long start = System.nanoTime();
+            locator.count();
+            statsFor(locator).query.record(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            // Nothing to measure; the check will report it
+        }
+        return locator;
+    }
+
+    /**
+     * Stats by selector, sorted by selector.
+     */
+    public static Map<String, SelectorStats> stats() {
+        return new TreeMap<>(STATS);
+    }
+
+    private static SelectorStats statsFor(Locator locator) {
+        return STATS.computeIfAbsent(selectorOf(locator), key -> new SelectorStats());
+    }
+
+    /**
+     * Playwright's own selector string, e.g. "#username" or internal:role=button[name="+ New Card"i].
+     */
+    private static String selectorOf(Locator locator) {
+        String text = locator.toString();
+        return text.startsWith("Locator@") ? text.substring("Locator@".length()) : text;
+    }
+}
@@ -0,0 +1,72 @@
+package instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What {@link SelectorProfiler} recorded for one selector.
+ */
+public class SelectorStats {
+
+    final LatencyHistogram resolution = new LatencyHistogram();
+    final LatencyHistogram query = new LatencyHistogram();
+    final LongAdder retries = new LongAdder();
+    final LongAdder retried = new LongAdder();
+    final LongAdder timeouts = new LongAdder();
+
+    SelectorStats() {
+    }
+
+    /**
+     * Stats put back together from a report, e.g. to combine the reports of several shards.
+     */
+    public static SelectorStats of(LatencyHistogram resolution, LatencyHistogram query,
+                                   long retries, long retriedLookups, long timeouts) {
+        SelectorStats stats = new SelectorStats();
+        stats.resolution.add(resolution);
+        stats.query.add(query);
+        stats.retries.add(retries);
+        stats.retried.add(retriedLookups);
+        stats.timeouts.add(timeouts);
+        return stats;
+    }
+
+    /**
+     * Time from the first query until the locator matched, per actionable lookup.
+     */
+    public LatencyHistogram resolution() {
+        return resolution;
+    }
+
+    /**
+     * Duration of a single query (round trip plus selector engine), per lookup.
+     */
+    public LatencyHistogram query() {
+        return query;
+    }
+
+    public long lookups() {
+        return resolution.count();
+    }
+
+    /**
+     * Empty polls over all lookups.
+     */
+    public long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * Lookups that needed at least one retry.
+     */
+    public long retriedLookups() {
+        return retried.sum();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    public double totalResolutionMillis() {
+        return resolution.meanMillis() * resolution.count();
+    }
+}
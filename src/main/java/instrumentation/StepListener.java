@@ -0,0 +1,9 @@
+package instrumentation;
+
+/**
+ * Notified after every timed page-object or component step, on the thread that ran it.
+ */
+public interface StepListener {
+
+    void stepFinished(String step, long nanos, Throwable failure);
+}
@@ -0,0 +1,106 @@
+package instrumentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Times page-object and component actions.
+ *
+ * Every action goes through {@link #time(String, Supplier)}, which feeds a run-wide
+ * {@link LatencyHistogram} per step name and, while a test trace is open on the
+ * current thread, that test's own breakdown. Tests get the numbers for free;
+ * nothing needs to be timed by hand.
+ */
+public class StepMetrics {
+
+    private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final List<StepListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Trace> TRACE = new ThreadLocal<>();
+    // Steps running on the thread, traced or not
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private StepMetrics() {
+    }
+
+    public static void time(String step, Runnable action) {
+        time(step, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T time(String step, Supplier<T> action) {
+        Trace trace = TRACE.get();
+        int[] running = DEPTH.get();
+        int depth = running[0]++;
+        Throwable failure = null;
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            running[0]--;
+            if (trace != null) {
+                trace.timings.add(new StepTiming(step, depth, nanos / 1_000_000.0, failure != null));
+            }
+            HISTOGRAMS.computeIfAbsent(step, key -> new LatencyHistogram()).record(nanos);
+            for (StepListener listener : LISTENERS) {
+                listener.stepFinished(step, nanos, failure);
+            }
+        }
+    }
+
+    /**
+     * How many steps the current thread is running; inside a {@link StepListener}, how many
+     * enclose the step that just finished (0 for a top-level step).
+     */
+    public static int depth() {
+        return DEPTH.get()[0];
+    }
+
+    /**
+     * Starts collecting a per-test breakdown on the current thread.
+     */
+    public static void startTrace() {
+        TRACE.set(new Trace());
+    }
+
+    /**
+     * Stops the current thread's trace and returns its steps in completion order
+     * (a nested step finishes before the step that called it).
+     */
+    public static List<StepTiming> stopTrace() {
+        Trace trace = TRACE.get();
+        TRACE.remove();
+        return trace == null ? List.of() : trace.timings;
+    }
+
+    public static void addListener(StepListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(StepListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Run-wide histograms by step name, sorted by name.
+     */
+    public static Map<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(HISTOGRAMS);
+    }
+
+    private static final class Trace {
+
+        private final List<StepTiming> timings = new ArrayList<>();
+    }
+}
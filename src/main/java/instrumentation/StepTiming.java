@@ -0,0 +1,38 @@
+package instrumentation;
+
+/**
+ * One timed step inside a test, as kept in the per-test breakdown.
+ */
+public class StepTiming {
+
+    private final String step;
+    private final int depth;
+    private final double millis;
+    private final boolean failed;
+
+    StepTiming(String step, int depth, double millis, boolean failed) {
+        this.step = step;
+        this.depth = depth;
+        this.millis = millis;
+        this.failed = failed;
+    }
+
+    public String getStep() {
+        return step;
+    }
+
+    /**
+     * Nesting level: 0 for a step called by the test, 1 for a step called by that step, and so on.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public double getMillis() {
+        return millis;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+}
@@ -1,11 +1,18 @@
 package pages;
 
+import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.options.AriaRole;
 import config.Config;
+import instrumentation.PageMetrics;
+import pages.enums.InteractionMode;
 import pages.enums.LoginSubmitType;
 
+import java.util.Arrays;
+
 import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
+import static instrumentation.SelectorProfiler.actionable;
+import static instrumentation.StepMetrics.time;
 
 public class LoginPage {
 
@@ -22,131 +29,241 @@ public class LoginPage {
     public static final String EMPTY_USERNAME_HINT = "Username or email is required";
     public static final String EMPTY_PASSWORD_HINT = "Password is required";
 
+    /**
+     * Batched form submission, run against the submit button. Values go in through the native
+     * value setter (so framework-controlled inputs notice) followed by input and change events,
+     * like a typed value. Enter is replayed as keydown / keypress / keyup on the password field
+     * with the browser's implicit submission in between, unless the page cancels the keydown.
+     */
+    private static final String FILL_AND_SUBMIT_SCRIPT = "(button, [usernameSelector, passwordSelector, login, password, pressEnter]) => {"
+            + "  const setValue = (field, value) => {"
+            + "    field.focus();"
+            + "    Object.getOwnPropertyDescriptor(Object.getPrototypeOf(field), 'value').set.call(field, value);"
+            + "    field.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "    field.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "  };"
+            + "  const passwordField = document.querySelector(passwordSelector);"
+            + "  if (login !== null) setValue(document.querySelector(usernameSelector), login);"
+            + "  if (password !== null) setValue(passwordField, password);"
+            + "  if (!pressEnter) { button.click(); return; }"
+            + "  passwordField.focus();"
+            + "  const key = {key: 'Enter', code: 'Enter', keyCode: 13, which: 13, bubbles: true, cancelable: true};"
+            + "  const proceed = passwordField.dispatchEvent(new KeyboardEvent('keydown', key));"
+            + "  passwordField.dispatchEvent(new KeyboardEvent('keypress', key));"
+            + "  if (proceed) passwordField.form.requestSubmit(button);"
+            + "  passwordField.dispatchEvent(new KeyboardEvent('keyup', key));"
+            + "}";
+
     public LoginPage(Page page) {
         this.page = page;
     }
 
+    private Locator locator(String selector) {
+        return actionable(page.locator(selector));
+    }
+
     private void open() {
-        page.navigate(Config.BASE_URL + LOGIN_URL);
+        time("LoginPage.open", () -> page.navigate(Config.BASE_URL + LOGIN_URL));
+        PageMetrics.capture(page, "login");
     }
 
-    public MainPage login(String login, String password, LoginSubmitType submitType) {
-        open();
+    private void fillUsername(String login) {
+        time("LoginPage.fillUsername", () -> locator(USERNAME_INPUT).fill(login));
+    }
 
-        page.fill(USERNAME_INPUT, login);
-        page.fill(PASSWORD_INPUT, password);
+    private void fillPassword(String password) {
+        time("LoginPage.fillPassword", () -> locator(PASSWORD_INPUT).fill(password));
+    }
 
+    private void clickSubmit() {
+        time("LoginPage.clickSubmit", () -> locator(SUBMIT_BUTTON).click());
+    }
+
+    /**
+     * Fills both fields and submits the way the caller asked, in one driver call
+     * when {@link InteractionMode#BATCHED} is on.
+     */
+    private void fillAndSubmit(String login, String password, LoginSubmitType submitType) {
+        if (InteractionMode.current() == InteractionMode.BATCHED) {
+            submitBatched(login, password, submitType == LoginSubmitType.ENTER);
+            return;
+        }
+        fillUsername(login);
+        fillPassword(password);
         submit(submitType);
+    }
 
-        waitForSuccessfulLogin();
+    /**
+     * Fills the given fields (null leaves a field empty) and clicks submit,
+     * in one driver call when {@link InteractionMode#BATCHED} is on.
+     */
+    private void fillAndClickSubmit(String login, String password) {
+        if (InteractionMode.current() == InteractionMode.BATCHED) {
+            submitBatched(login, password, false);
+            return;
+        }
+        if (login != null) {
+            fillUsername(login);
+        }
+        if (password != null) {
+            fillPassword(password);
+        }
+        clickSubmit();
+    }
 
-        return new MainPage(page);
+    private void submitBatched(String login, String password, boolean pressEnter) {
+        time("LoginPage.submitBatched", () -> locator(SUBMIT_BUTTON).evaluate(FILL_AND_SUBMIT_SCRIPT,
+                Arrays.asList(USERNAME_INPUT, PASSWORD_INPUT, login, password, pressEnter)));
+    }
+
+    public MainPage login(String login, String password, LoginSubmitType submitType) {
+        return time("LoginPage.login", () -> {
+            open();
+
+            fillAndSubmit(login, password, submitType);
+
+            waitForSuccessfulLogin();
+
+            return new MainPage(page);
+        });
     }
 
 
     private void submit(LoginSubmitType submitType) {
-        switch (submitType) {
-            case CLICK ->
-                    page.locator(SUBMIT_BUTTON).click();
-            case ENTER ->
-                    page.locator(PASSWORD_INPUT).press("Enter");
-        }
+        time("LoginPage.submit", () -> {
+            switch (submitType) {
+                case CLICK ->
+                        locator(SUBMIT_BUTTON).click();
+                case ENTER ->
+                        locator(PASSWORD_INPUT).press("Enter");
+            }
+        });
     }
 
     private void waitForSuccessfulLogin() {
-        page.getByRole(
+        time("LoginPage.waitForSuccessfulLogin", () -> actionable(page.getByRole(
                 AriaRole.BUTTON,
                 new Page.GetByRoleOptions().setName("+ New Card")
-        ).waitFor();
+        )).waitFor());
+        if (PageMetrics.isEnabled()) {
+            // The button can render before the main page has finished loading. Named apart from
+            // MainPage.open: the first load after logging in fetches more than a later one
+            page.waitForLoadState();
+            PageMetrics.capture(page, "main-after-login");
+        }
     }
 
     public LoginPage loginWithInvalidEmailFormat(String invalidEmailFormat, String password) {
-        open();
-
-        page.fill(USERNAME_INPUT, invalidEmailFormat);
-        page.fill(PASSWORD_INPUT, password);
+        return time("LoginPage.loginWithInvalidEmailFormat", () -> {
+            open();
 
-        page.locator(SUBMIT_BUTTON).click();
-        return this;
+            fillAndClickSubmit(invalidEmailFormat, password);
+            return this;
+        });
     }
 
     public LoginPage loginWithEmptyEmail(String password) {
-        open();
-        page.fill(PASSWORD_INPUT, password);
-        page.locator(SUBMIT_BUTTON).click();
+        return time("LoginPage.loginWithEmptyEmail", () -> {
+            open();
+            fillAndClickSubmit(null, password);
 
-        return this;
+            return this;
+        });
     }
 
     public LoginPage loginWithEmptyPassword(String login) {
-        open();
-        page.fill(USERNAME_INPUT, login);
-        page.locator(SUBMIT_BUTTON).click();
+        return time("LoginPage.loginWithEmptyPassword", () -> {
+            open();
+            fillAndClickSubmit(login, null);
 
-        return this;
+            return this;
+        });
     }
 
     public LoginPage loginWithIncorrectPassword(String login,String wrongPassword) {
-        open();
-        page.fill(USERNAME_INPUT, login);
-        page.fill(PASSWORD_INPUT, wrongPassword);
-        page.locator(SUBMIT_BUTTON).click();
+        return time("LoginPage.loginWithIncorrectPassword", () -> {
+            open();
+            fillAndClickSubmit(login, wrongPassword);
 
-        return this;
+            return this;
+        });
     }
 
     public LoginPage loginWithEmptyLoginAndPassword() {
-        open();
-        page.locator(SUBMIT_BUTTON).click();
+        return time("LoginPage.loginWithEmptyLoginAndPassword", () -> {
+            open();
+            fillAndClickSubmit(null, null);
 
-        return this;
+            return this;
+        });
     }
 
     public LoginPage loginWithNonExistentLoginAndPassword(String nonExistentLogin, String nonExistentPassword) {
-        open();
-        page.fill(USERNAME_INPUT, nonExistentLogin);
-        page.fill(PASSWORD_INPUT, nonExistentPassword);
-        page.locator(SUBMIT_BUTTON).click();
+        return time("LoginPage.loginWithNonExistentLoginAndPassword", () -> {
+            open();
+            fillAndClickSubmit(nonExistentLogin, nonExistentPassword);
 
-        return this;
+            return this;
+        });
     }
 
     public LoginPage loginWithInjectionLoginAndPassword(String injectionLogin, String injectionPassword) {
-        open();
-        page.fill(USERNAME_INPUT, injectionLogin);
-        page.fill(PASSWORD_INPUT, injectionPassword);
-        page.locator(SUBMIT_BUTTON).click();
+        return time("LoginPage.loginWithInjectionLoginAndPassword", () -> {
+            open();
+            fillAndClickSubmit(injectionLogin, injectionPassword);
 
-        return this;
+            return this;
+        });
     }
 
     public LoginPage lockUserAfterMultipleFailureAttempts(String login, String wrongPassword) {
-        open();
-        for (int i = 0; i < 5; i++) {
-            page.fill(USERNAME_INPUT, login);
-            page.fill(PASSWORD_INPUT, wrongPassword);
-            page.locator(SUBMIT_BUTTON).click();
-            assertThat(page.locator(INVALID_USERNAME_PASSWORD_DIV)).hasText(INVALID_USERNAME_OR_PASSWORD_HINT);
-        }
-        page.fill(USERNAME_INPUT, login);
-        page.fill(PASSWORD_INPUT, wrongPassword);
-        page.locator(SUBMIT_BUTTON).click();
-        return this;
+        return time("LoginPage.lockUserAfterMultipleFailureAttempts", () -> {
+            open();
+            for (int i = 0; i < Config.LOCKOUT_ATTEMPTS; i++) {
+                fillAndClickSubmit(login, wrongPassword);
+                assertThat(locator(INVALID_USERNAME_PASSWORD_DIV)).hasText(INVALID_USERNAME_OR_PASSWORD_HINT);
+            }
+            fillAndClickSubmit(login, wrongPassword);
+            return this;
+        });
+    }
+
+    /**
+     * One failed login through the form on an account that is already locked (e.g. through
+     * the API), waiting until the server's answer is shown.
+     */
+    public LoginPage loginWithLockedAccount(String login, String wrongPassword) {
+        return time("LoginPage.loginWithLockedAccount", () -> {
+            open();
+            fillAndClickSubmit(login, wrongPassword);
+            assertThat(locator(INVALID_USERNAME_PASSWORD_DIV)).not().isEmpty();
+            return this;
+        });
+    }
+
+    /**
+     * Waits until the given validation or login hint is shown, i.e. the server has answered.
+     */
+    public LoginPage waitForHint(String hint) {
+        return time("LoginPage.waitForHint", () -> {
+            actionable(page.getByText(hint).first()).waitFor();
+            return this;
+        });
     }
 
     public String getInvalidUsernameHint() {
-        return page.locator(INVALID_USERNAME_DIV).textContent();
+        return time("LoginPage.getInvalidUsernameHint", () -> locator(INVALID_USERNAME_DIV).textContent());
     }
 
     public String getInvalidPasswordHint() {
-        return page.locator(INVALID_PASSWORD_DIV).textContent();
+        return time("LoginPage.getInvalidPasswordHint", () -> locator(INVALID_PASSWORD_DIV).textContent());
     }
 
     public String getInvalidEmailOrPasswordHint() {
-        return page.locator(INVALID_USERNAME_PASSWORD_DIV).textContent();
+        return time("LoginPage.getInvalidEmailOrPasswordHint", () -> locator(INVALID_USERNAME_PASSWORD_DIV).textContent());
     }
 
     public String getLockedUserHint() {
-        return page.locator(INVALID_USERNAME_PASSWORD_DIV).textContent();
+        return time("LoginPage.getLockedUserHint", () -> locator(INVALID_USERNAME_PASSWORD_DIV).textContent());
     }
 }
@@ -6,6 +6,12 @@ import com.microsoft.playwright.options.AriaRole;
 import com.microsoft.playwright.options.WaitForSelectorState;
 import components.ModalComponent;
 import config.Config;
+import instrumentation.PageMetrics;
+import pages.locators.LoginPageLocators;
+
+import static instrumentation.SelectorProfiler.actionable;
+import static instrumentation.SelectorProfiler.probe;
+import static instrumentation.StepMetrics.time;
 
 public class MainPage {
 
@@ -20,23 +26,59 @@ public class MainPage {
     }
 
     public void open() {
-        page.navigate(Config.BASE_URL + URL);
+        time("MainPage.open", () -> page.navigate(Config.BASE_URL + URL));
+        PageMetrics.capture(page, "main");
     }
 
-    public ModalComponent clickAddCard() {
-        page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("+ New Card"))
-                .waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE));
+    public void reload() {
+        time("MainPage.reload", () -> page.reload());
+        PageMetrics.capture(page, "main");
+    }
 
-        page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("+ New Card")).click();
-        return new ModalComponent(page);
+    /**
+     * Logs out and waits for the login form.
+     */
+    public LoginPage logout() {
+        return time("MainPage.logout", () -> {
+            actionable(page.locator(logoutButton)).click();
+            actionable(page.locator(LoginPageLocators.USERNAME_INPUT)).waitFor();
+            return new LoginPage(page);
+        });
+    }
+
+    public ModalComponent clickAddCard() {
+        return time("MainPage.clickAddCard", () -> {
+            Locator newCardButton = newCardButton();
+            actionable(newCardButton).waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE));
+            actionable(newCardButton).click();
+            return new ModalComponent(page);
+        });
     }
 
     public MainPage title() {
         return new MainPage(page);
     }
 
+    /**
+     * Waits until either the main page or the login form renders and reports which one won.
+     * A redirect to the login form means the session cookies were rejected.
+     */
+    public boolean isSessionActive() {
+        return time("MainPage.isSessionActive", () -> {
+            Locator newCardButton = newCardButton();
+            Locator loginForm = page.locator(LoginPageLocators.USERNAME_INPUT);
+
+            actionable(newCardButton.or(loginForm).first()).waitFor();
+            return !page.url().contains(LoginPage.LOGIN_URL) && probe(newCardButton).isVisible();
+        });
+    }
+
+    private Locator newCardButton() {
+        return page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("+ New Card"));
+    }
+
     public boolean isLogoutButtonDisplayed() {
-        return page.locator(logoutButton).isVisible();
+        return time("MainPage.isLogoutButtonDisplayed", () -> probe(page.locator(logoutButton)).isVisible());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package pages.enums;
+
+import config.Settings;
+
+import java.util.Locale;
+
+/**
+ * How page objects drive forms, chosen with -Dinteraction (default step).
+ * STEP fills and clicks field by field through Playwright, one driver call each.
+ * BATCHED sets all values, fires the input and change events and submits inside the page
+ * in a single driver call. That skips Playwright's per-field actionability checks,
+ * so it is opt-in.
+ */
+public enum InteractionMode {
+    STEP,
+    BATCHED;
+
+    private static final InteractionMode CURRENT =
+            valueOf(Settings.get("interaction", "INTERACTION", "step").trim().toUpperCase(Locale.ROOT));
+
+    public static InteractionMode current() {
+        return CURRENT;
+    }
+}
@@ -0,0 +1,268 @@
+package browser;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.microsoft.playwright.Playwright;
+import config.Settings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Long-lived Chromium server shared by test runs on this machine (-Dbrowser.daemon=true).
+ *
+ * The first run starts Playwright's browser server ("launch-server") as a detached process
+ * and records its websocket endpoint in .browser-daemon/state.json; later runs connect
+ * to it instead of launching Chromium. Before every use the daemon is checked: it is
+ * replaced when its process is gone, its port does not answer, it was started by another
+ * Playwright version or headless setting, or it is older than -Dbrowser.daemon.maxAge.hours
+ * (default 12). Anything going wrong makes the caller fall back to a normal launch.
+ *
+ * PIDs get reused, so the recorded PID is only trusted (and only ever killed) while the
+ * process behind it still has the recorded start time and runs launch-server.
+ *
+ * Start, inspect or stop it by hand with
+ * mvn test-compile exec:exec@browser-daemon -Dbrowser.daemon.command=start|status|stop
+ */
+public class BrowserDaemon {
+
+    static final boolean ENABLED = Settings.getBoolean("browser.daemon", "BROWSER_DAEMON", false);
+
+    private static final Path DIR = Paths.get(Settings.get("browser.daemon.dir", "BROWSER_DAEMON_DIR", ".browser-daemon"));
+    private static final Path STATE = DIR.resolve("state.json");
+    private static final Path CONFIG = DIR.resolve("config.json");
+    private static final Path LOG = DIR.resolve("daemon.log");
+    private static final Path LOCK = DIR.resolve("daemon.lock");
+
+    private static final Duration MAX_AGE = Duration.ofHours(
+            Settings.getLong("browser.daemon.maxAge.hours", "BROWSER_DAEMON_MAX_AGE_HOURS", 12));
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(60);
+    private static final int PORT_CHECK_TIMEOUT_MS = 500;
+
+    private static final String VERSION = String.valueOf(Playwright.class.getPackage().getImplementationVersion());
+    private static final Gson GSON = new Gson();
+
+    private BrowserDaemon() {
+    }
+
+    /**
+     * Returns the endpoint of a healthy daemon, starting one if needed, or empty if none
+     * could be started (the caller then launches a browser itself). Never throws.
+     */
+    static synchronized Optional<String> endpoint(boolean headless) {
+        try {
+            return Optional.of(withLock(() -> {
+                Optional<JsonObject> state = readState();
+                if (state.isPresent() && isHealthy(state.get(), headless)) {
+                    return state.get().get("wsEndpoint").getAsString();
+                }
+                state.ifPresent(BrowserDaemon::stop);
+                return start(headless);
+            }));
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Browser daemon unavailable, launching a local browser: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "status";
+        boolean headless = Settings.getBoolean("headless", "HEADLESS", true);
+        switch (command) {
+            case "start" -> System.out.println(endpoint(headless)
+                    .map(endpoint -> "Browser daemon is listening on " + endpoint)
+                    .orElse("Browser daemon could not be started, see " + LOG.toAbsolutePath()));
+            case "stop" -> withLock(() -> {
+                Optional<JsonObject> state = readState();
+                state.ifPresent(BrowserDaemon::stop);
+                System.out.println(state.isPresent() ? "Browser daemon stopped" : "No browser daemon is running");
+                return null;
+            });
+            case "status" -> System.out.println(readState()
+                    .map(state -> (isHealthy(state, state.get("headless").getAsBoolean()) ? "healthy" : "unhealthy")
+                            + ": " + state)
+                    .orElse("No browser daemon is running"));
+            default -> throw new IllegalArgumentException("Unknown command '" + command + "', use start, status or stop");
+        }
+    }
+
+    private static boolean isHealthy(JsonObject state, boolean headless) {
+        if (!VERSION.equals(state.get("version").getAsString())
+                || headless != state.get("headless").getAsBoolean()
+                || Instant.ofEpochMilli(state.get("startedAt").getAsLong()).plus(MAX_AGE).isBefore(Instant.now())) {
+            return false;
+        }
+        return daemonProcess(state).isPresent() && isListening(URI.create(state.get("wsEndpoint").getAsString()));
+    }
+
+    /**
+     * The recorded process, if it is still the daemon: alive, started at the recorded time
+     * and running launch-server. Anything else is a reused PID and must not be touched.
+     */
+    private static Optional<ProcessHandle> daemonProcess(JsonObject state) {
+        if (!state.has("processStartedAt")) {
+            return Optional.empty();
+        }
+        long startedAt = state.get("processStartedAt").getAsLong();
+        return ProcessHandle.of(state.get("pid").getAsLong())
+                .filter(ProcessHandle::isAlive)
+                .filter(process -> process.info().startInstant()
+                        .map(instant -> instant.toEpochMilli() == startedAt)
+                        .orElse(false))
+                .filter(process -> process.info().commandLine()
+                        .map(commandLine -> commandLine.contains("launch-server"))
+                        .orElse(false));
+    }
+
+    private static boolean isListening(URI endpoint) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(endpoint.getHost(), endpoint.getPort()), PORT_CHECK_TIMEOUT_MS);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String start(boolean headless) {
+        try {
+            Files.writeString(CONFIG, GSON.toJson(Map.of("headless", headless)), StandardCharsets.UTF_8);
+            Files.deleteIfExists(LOG);
+
+            // The Java CLI keeps the extracted driver alive for as long as the server runs
+            Process process = new ProcessBuilder(javaExecutable(), "-cp", driverClasspath(),
+                    "com.microsoft.playwright.CLI", "launch-server",
+                    "--browser", "chromium", "--config", CONFIG.toAbsolutePath().toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(LOG.toFile())
+                    .start();
+
+            String endpoint = awaitEndpoint(process);
+            Instant processStartedAt = process.info().startInstant()
+                    .orElseThrow(() -> new IllegalStateException("cannot read the browser server's start time"));
+            JsonObject state = new JsonObject();
+            state.addProperty("pid", process.pid());
+            state.addProperty("processStartedAt", processStartedAt.toEpochMilli());
+            state.addProperty("wsEndpoint", endpoint);
+            state.addProperty("version", VERSION);
+            state.addProperty("headless", headless);
+            state.addProperty("startedAt", System.currentTimeMillis());
+            Files.writeString(STATE, GSON.toJson(state), StandardCharsets.UTF_8);
+            System.out.println("Started browser daemon on " + endpoint);
+            return endpoint;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start browser daemon", e);
+        }
+    }
+
+    private static String awaitEndpoint(Process process) throws IOException {
+        Instant deadline = Instant.now().plus(START_TIMEOUT);
+        while (Instant.now().isBefore(deadline)) {
+            for (String line : Files.readAllLines(LOG, StandardCharsets.UTF_8)) {
+                if (line.startsWith("ws://")) {
+                    return line.trim();
+                }
+            }
+            if (!process.isAlive()) {
+                throw new IllegalStateException("browser server exited, see " + LOG.toAbsolutePath());
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        destroyTree(process.toHandle());
+        throw new IllegalStateException("browser server did not report its endpoint in " + START_TIMEOUT.toSeconds() + " s");
+    }
+
+    private static void stop(JsonObject state) {
+        // A state whose process is gone or is no longer the daemon is just stale
+        daemonProcess(state).ifPresent(BrowserDaemon::destroyTree);
+        try {
+            Files.deleteIfExists(STATE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void destroyTree(ProcessHandle process) {
+        // The Java CLI runs node, which runs Chromium: stop the children first
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            process.onExit().get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static Optional<JsonObject> readState() {
+        if (!Files.exists(STATE)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(GSON.fromJson(Files.readString(STATE, StandardCharsets.UTF_8), JsonObject.class));
+        } catch (IOException | JsonParseException | NullPointerException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String javaExecutable() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    /**
+     * Just the Playwright jars: the test classpath may be a temporary surefire booter jar
+     * that is gone once this run ends.
+     */
+    private static String driverClasspath() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (String className : List.of("com.microsoft.playwright.CLI",
+                "com.microsoft.playwright.impl.driver.Driver",
+                "com.microsoft.playwright.impl.driver.jar.DriverJar",
+                "com.google.gson.Gson")) {
+            try {
+                Class<?> type = Class.forName(className);
+                entries.add(Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot locate " + className + " on the classpath", e);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    // synchronized callers plus a file lock: parallel forks and shards start at most one daemon
+    private static <T> T withLock(Supplier<T> action) {
+        try {
+            Files.createDirectories(DIR);
+            try (FileChannel channel = FileChannel.open(LOCK, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.get();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot lock " + LOCK.toAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package browser;
+
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Ties the Playwright drivers and browsers to the JUnit launcher session instead of a test class.
+ *
+ * A launcher session spans every test class and every execution request in the JVM
+ * (including surefire reruns), so each worker thread launches Chromium once per JVM
+ * and all test classes share it. Everything is closed when the session ends.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener.
+ */
+public class BrowserManager implements LauncherSessionListener {
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        PlaywrightWorkers.closeAll();
+    }
+}
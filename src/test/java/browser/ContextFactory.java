@@ -0,0 +1,53 @@
+package browser;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import instrumentation.PageMetrics;
+import network.RequestFilter;
+import reporting.FailureTrace;
+
+/**
+ * Creates the browser context of one test and closes it afterwards; a context is never
+ * reused, so tests never share cookies, storage or pages.
+ *
+ * Both run on the test's own thread. Playwright objects are not thread-safe, and a
+ * background thread could only prepare contexts through the driver connection the test
+ * is using at the same time, so there is nothing to gain by moving this off the test's path.
+ */
+public final class ContextFactory {
+
+    public static final double DEFAULT_TIMEOUT_MS = 7_000;
+
+    private ContextFactory() {
+    }
+
+    /**
+     * A new context with default timeouts set, the request filter routed, tracing and page
+     * metrics installed when enabled, and its first page open.
+     */
+    public static BrowserContext newContext(Browser browser) {
+        BrowserContext context = browser.newContext();
+
+        context.setDefaultTimeout(DEFAULT_TIMEOUT_MS);
+        context.setDefaultNavigationTimeout(DEFAULT_TIMEOUT_MS);
+        RequestFilter.install(context);
+        FailureTrace.install(context);
+        PageMetrics.install(context);
+        context.newPage();
+        return context;
+    }
+
+    /**
+     * Closes the context, reporting instead of throwing when the browser is already gone.
+     */
+    public static void close(BrowserContext context) {
+        if (context == null) {
+            return;
+        }
+        try {
+            context.close();
+        } catch (Exception e) {
+            System.err.println("Failed to close browser context: " + e.getMessage());
+        }
+    }
+}
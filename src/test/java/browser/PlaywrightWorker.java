@@ -0,0 +1,92 @@
+package browser;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import config.Settings;
+
+import java.util.Map;
+
+/**
+ * One Playwright driver and one Chromium, checked out by one test at a time from
+ * {@link PlaywrightWorkers}. Playwright objects are not thread-safe, so a worker is only ever
+ * used by the thread that checked it out, until it checks the worker back in.
+ * With -Dbrowser.daemon=true the Chromium is a connection to the shared {@link BrowserDaemon}
+ * instead of a browser of its own.
+ */
+public class PlaywrightWorker implements AutoCloseable {
+
+    private final Playwright playwright;
+    private final Browser browser;
+    private final String name;
+
+    PlaywrightWorker(String name) {
+        this.name = name;
+
+        // Default to headless mode for CI environments (Jenkins)
+        // Can be overridden with -Dheadless=false for local debugging
+        boolean headless = Settings.getBoolean("headless", "HEADLESS", true);
+
+        String endpoint = BrowserDaemon.ENABLED ? BrowserDaemon.endpoint(headless).orElse(null) : null;
+        if (endpoint == null) {
+            this.playwright = Playwright.create();
+            this.browser = launch(headless);
+        } else {
+            // The daemon owns the browser: no need to check the local install
+            this.playwright = Playwright.create(new Playwright.CreateOptions()
+                    .setEnv(Map.of("PLAYWRIGHT_SKIP_BROWSER_DOWNLOAD", "1")));
+            this.browser = connect(endpoint, headless);
+        }
+    }
+
+    private Browser launch(boolean headless) {
+        return playwright.chromium().launch(
+                new BrowserType.LaunchOptions()
+                        .setHeadless(headless)
+        );
+    }
+
+    private Browser connect(String endpoint, boolean headless) {
+        try {
+            return playwright.chromium().connect(endpoint);
+        } catch (PlaywrightException e) {
+            // Other forks and shards may still be using this daemon: only endpoint() may replace
+            // it, under its lock and only once its health check fails
+            String reason = e.getMessage();
+            String replacement = BrowserDaemon.endpoint(headless).filter(other -> !other.equals(endpoint)).orElse(null);
+            if (replacement != null) {
+                try {
+                    return playwright.chromium().connect(replacement);
+                } catch (PlaywrightException retry) {
+                    reason = retry.getMessage();
+                }
+            }
+            System.err.println("⚠️ Cannot connect to browser daemon at " + endpoint + ", launching a local browser: "
+                    + reason);
+            return launch(headless);
+        }
+    }
+
+    public Playwright playwright() {
+        return playwright;
+    }
+
+    public Browser browser() {
+        return browser;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void close() {
+        try {
+            // For a daemon browser this only disconnects; the daemon keeps running
+            browser.close();
+        } finally {
+            playwright.close();
+        }
+    }
+}
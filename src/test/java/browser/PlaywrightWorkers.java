@@ -0,0 +1,86 @@
+package browser;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded pool of {@link PlaywrightWorker}s, at most one per configured worker
+ * ({@link WorkerCountStrategy#workers()}). A test checks a worker out for its whole run and
+ * checks it back in afterwards, so a worker is only ever used by one thread at a time.
+ *
+ * Workers are not tied to threads: JUnit's fork-join pool may retire idle threads and start
+ * new ones during a run, and a new thread picks up an idle worker instead of launching
+ * another browser. Workers are created lazily and closed together by {@link BrowserManager}
+ * when the launcher session ends, when no test is touching them any more.
+ */
+public class PlaywrightWorkers {
+
+    private static final int MAX = WorkerCountStrategy.workers();
+    private static final Deque<PlaywrightWorker> IDLE = new ArrayDeque<>();
+    private static final Queue<PlaywrightWorker> ALL = new ConcurrentLinkedQueue<>();
+    private static int created;
+
+    private PlaywrightWorkers() {
+    }
+
+    /**
+     * Takes an idle worker, launching a new one while fewer than the maximum exist,
+     * and waits for one to be checked in otherwise.
+     */
+    public static PlaywrightWorker checkOut() {
+        int index;
+        synchronized (IDLE) {
+            while (IDLE.isEmpty() && created >= MAX) {
+                try {
+                    IDLE.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a Playwright worker", e);
+                }
+            }
+            PlaywrightWorker idle = IDLE.poll();
+            if (idle != null) {
+                return idle;
+            }
+            index = created++;
+        }
+        try {
+            PlaywrightWorker worker = new PlaywrightWorker("worker-" + index);
+            ALL.add(worker);
+            return worker;
+        } catch (RuntimeException e) {
+            synchronized (IDLE) {
+                created--;
+                IDLE.notify();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Hands the worker back for the next test; the browser stays open.
+     */
+    public static void checkIn(PlaywrightWorker worker) {
+        synchronized (IDLE) {
+            IDLE.push(worker);
+            IDLE.notify();
+        }
+    }
+
+    public static void closeAll() {
+        PlaywrightWorker worker;
+        while ((worker = ALL.poll()) != null) {
+            try {
+                worker.close();
+            } catch (Exception e) {
+                System.err.println("Failed to close Playwright " + worker.name() + ": " + e.getMessage());
+            }
+        }
+        synchronized (IDLE) {
+            IDLE.clear();
+            created = 0;
+        }
+    }
+}
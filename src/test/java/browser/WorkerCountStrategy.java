@@ -0,0 +1,68 @@
+package browser;
+
+import config.Settings;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * Sizes the JUnit worker pool from -Dworkers (or WORKERS), defaulting to the number of cores.
+ *
+ * The pool runs that many tests at a time, and {@link PlaywrightWorkers} holds that many
+ * Playwright drivers and Chromium processes at most; threads the pool retires and replaces
+ * reuse the existing browsers. A thread that waits for a retry attempt to finish (see
+ * {@link flaky.RetryExtension}) may be stood in for by one of up to {@value #SPARE_THREADS}
+ * spare threads, as in ForkJoinPool's common pool; they share the same browsers.
+ */
+public class WorkerCountStrategy implements ParallelExecutionConfigurationStrategy {
+
+    private static final int SPARE_THREADS = 256;
+
+    /**
+     * The configured number of workers: parallel tests and browsers.
+     */
+    public static int workers() {
+        return Math.max(1, Settings.getInt("workers", "WORKERS", Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int workers = workers();
+
+        return new ParallelExecutionConfiguration() {
+            @Override
+            public int getParallelism() {
+                return workers;
+            }
+
+            @Override
+            public int getMinimumRunnable() {
+                return workers;
+            }
+
+            @Override
+            public int getMaxPoolSize() {
+                return workers + SPARE_THREADS;
+            }
+
+            @Override
+            public int getCorePoolSize() {
+                return workers;
+            }
+
+            @Override
+            public int getKeepAliveSeconds() {
+                return 30;
+            }
+
+            @Override
+            public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+                // Wait for a free worker instead of failing when the pool is saturated
+                return pool -> true;
+            }
+        };
+    }
+}
@@ -1,36 +1,68 @@
 package com.interviewcards;
 
+import browser.ContextFactory;
+import browser.PlaywrightWorker;
+import browser.PlaywrightWorkers;
 import com.microsoft.playwright.*;
 import components.ModalComponent;
-import io.qameta.allure.Allure;
+import flaky.Quarantine;
+import flaky.RetryExtension;
+import instrumentation.LocatorActions;
+import instrumentation.PageMetrics;
+import instrumentation.StepMetrics;
+import network.EmulatedNetwork;
+import network.HarRouting;
+import network.NetworkCondition;
+import network.NetworkEmulation;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import pages.LoginPage;
 import pages.MainPage;
+import reporting.FailureTrace;
+import reporting.PerformanceBudgets;
+import reporting.ScreenshotPipeline;
+import reporting.StepTimingReport;
+import session.Authenticated;
+import session.Credentials;
+import session.SessionCache;
 
-import java.io.ByteArrayInputStream;
+import static config.Config.EMAIL;
+import static config.Config.PASSWORD;
 
 /**
  * Base test class for Playwright tests.
  * Handles browser setup and teardown with better error handling.
+ *
+ * Tests run in parallel: every test checks out a Playwright and Browser of its own for its
+ * whole run (see {@link PlaywrightWorkers}), and contexts and pages never leave the test's thread.
+ * Browsers live for the whole JVM and are shared by all test classes;
+ * {@link browser.BrowserManager} closes them when the launcher session ends.
+ *
+ * A failed {@link flaky.RetryingTest} is run again from scratch, in a fresh context
+ * ({@link RetryExtension}), and tests that keep flaking are moved out of the main run
+ * ({@link Quarantine}).
  */
 
+@ExtendWith({Quarantine.class, RetryExtension.class})
 public class BaseTest {
 
-    protected static Playwright playwright;
-    protected static Browser browser;
-
+    protected Browser browser;
     protected BrowserContext context;
     protected Page page;
     protected MainPage mainPage;
     protected LoginPage loginPage;
     protected ModalComponent modalComponent;
 
+    private TestInfo testInfo;
+    private PlaywrightWorker worker;
+
     /**
      * Captures screenshot on test failure at the correct moment:
      * After the test method finishes, but BEFORE @AfterEach closes the context.
+     * Writing the image is left to the background {@link ScreenshotPipeline}.
      */
     @RegisterExtension
     final AfterTestExecutionCallback screenshotOnFailure = new AfterTestExecutionCallback() {
@@ -42,58 +74,122 @@ public class BaseTest {
             if (page == null) {
                 return;
             }
-            try {
-                byte[] screenshot = page.screenshot(new Page.ScreenshotOptions().setFullPage(true));
-                Allure.addAttachment(
-                        "Screenshot: " + extensionContext.getDisplayName(),
-                        "image/png",
-                        new ByteArrayInputStream(screenshot),
-                        ".png"
-                );
-            } catch (Exception e) {
-                // If the page was closed by the test, just skip screenshot.
-                System.err.println("Failed to capture screenshot: " + e.getMessage());
-            }
+            ScreenshotPipeline.capture(page, "Screenshot: " + extensionContext.getDisplayName());
         }
     };
 
-    @BeforeAll
-    static void beforeAll() {
-        playwright = Playwright.create();
+    /**
+     * Saves the Playwright trace of a failed test (-Dtrace=on-failure), drops it otherwise.
+     * Runs before @AfterEach closes the context.
+     */
+    @RegisterExtension
+    final AfterTestExecutionCallback failureTrace =
+            extensionContext -> FailureTrace.finish(extensionContext.getExecutionException().isPresent());
 
-        // Default to headless mode for CI environments (Jenkins)
-        // Can be overridden with -Dheadless=false for local debugging
-        String headlessProperty = System.getProperty("headless", 
-            System.getenv().getOrDefault("HEADLESS", "true"));
-        boolean headless = Boolean.parseBoolean(headlessProperty);
+    /**
+     * Attaches the timing of every page-object step the test ran (setup included)
+     * and how many locator actions they performed.
+     */
+    @RegisterExtension
+    final AfterTestExecutionCallback stepTimings =
+            extensionContext -> StepTimingReport.attach(StepMetrics.stopTrace(), LocatorActions.stop());
 
-        browser = playwright.chromium().launch(
-                new BrowserType.LaunchOptions()
-                        .setHeadless(headless)
-        );
-    }
+    /**
+     * Attaches the web performance numbers of the pages the test loaded (-Dperf.metrics=true)
+     * and fails the test if a page went over its budget.
+     */
+    @RegisterExtension
+    final AfterTestExecutionCallback performanceBudgets =
+            extensionContext -> PerformanceBudgets.check(PageMetrics.stopTrace());
 
     @BeforeEach
-    void setupContext() {
-        context = browser.newContext();
+    void setupContext(TestInfo testInfo) {
+        StepMetrics.startTrace();
+        LocatorActions.start();
+        PageMetrics.startTrace();
+        this.testInfo = testInfo;
+        worker = PlaywrightWorkers.checkOut();
+        browser = worker.browser();
 
-        context.setDefaultTimeout(7_000);
-        context.setDefaultNavigationTimeout(7_000);
-        page = context.newPage();
+        if (isAuthenticated(testInfo)) {
+            openAuthenticatedSession(new Credentials(EMAIL, PASSWORD));
+            return;
+        }
+        openContext();
     }
 
-    @AfterEach
-    void tearDown() {
-        context.close();
+    /**
+     * Opens a fresh context (default timeouts set, first page open) in the worker's browser,
+     * routes it through the test's HAR recording when -Dhar is set and emulates the test's
+     * network condition.
+     */
+    private void openContext() {
+        context = ContextFactory.newContext(browser);
+        page = context.pages().get(0);
+        FailureTrace.begin(context);
+        HarRouting.apply(context, testInfo);
+        NetworkEmulation.apply(context, networkCondition(testInfo));
     }
 
-    @AfterAll
-    static void afterAll() {
-        if (browser != null) {
-            browser.close();
+    /**
+     * Switches the test's context to another network condition, e.g. one per parameter.
+     * Only what the test does afterwards runs on the emulated link.
+     */
+    protected void emulateNetwork(NetworkCondition condition) {
+        NetworkEmulation.apply(context, condition);
+    }
+
+    private static NetworkCondition networkCondition(TestInfo testInfo) {
+        return testInfo.getTestMethod().map(m -> m.getAnnotation(EmulatedNetwork.class))
+                .or(() -> testInfo.getTestClass().map(c -> c.getAnnotation(EmulatedNetwork.class)))
+                .map(annotation -> NetworkCondition.byName(annotation.value()))
+                .orElse(NetworkEmulation.DEFAULT);
+    }
+
+    /**
+     * Starts the test on the main page from a cached session.
+     * If the server rejects the cached cookies, the session is invalidated
+     * and the test gets one fresh login before giving up.
+     */
+    private void openAuthenticatedSession(Credentials credentials) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            openContext();
+            String storageState = SessionCache.storageState(browser, credentials);
+            SessionCache.applyTo(context, storageState);
+
+            mainPage = new MainPage(page);
+            mainPage.open();
+            if (mainPage.isSessionActive()) {
+                return;
+            }
+
+            SessionCache.invalidate(credentials, storageState);
+            FailureTrace.finish(false);
+            ContextFactory.close(context);
+            context = null;
+        }
+        throw new IllegalStateException("Cached session for " + credentials + " was rejected twice in a row");
+    }
+
+    private static boolean isAuthenticated(TestInfo testInfo) {
+        return testInfo.getTestMethod().map(m -> m.isAnnotationPresent(Authenticated.class)).orElse(false)
+                || testInfo.getTestClass().map(c -> c.isAnnotationPresent(Authenticated.class)).orElse(false);
+    }
+
+    /**
+     * Closes the test's context; contexts are never reused.
+     */
+    @AfterEach
+    void tearDown() {
+        if (worker == null) {
+            return;
         }
-        if (playwright != null) {
-            playwright.close();
+        try {
+            NetworkEmulation.finish();
+            ContextFactory.close(context);
+        } finally {
+            PlaywrightWorkers.checkIn(worker);
+            worker = null;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package flaky;
+
+import config.Settings;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Locale;
+
+/**
+ * Splits the suite into two lanes by {@link TestHistory} (-Dquarantine.lane).
+ *
+ * "main" (the default) skips quarantined tests, so a flaky test no longer fails the build;
+ * "quarantine" runs only the quarantined ones (mvn test -Pquarantine, side by side with the
+ * main run, failures do not fail the build); "off" runs everything. Skipped tests carry the
+ * reason in Allure, and tests run in the quarantine lane are tagged "quarantined".
+ */
+public class Quarantine implements ExecutionCondition, BeforeEachCallback {
+
+    enum Lane {
+        MAIN, QUARANTINE, OFF
+    }
+
+    static final Lane LANE = Lane.valueOf(
+            Settings.get("quarantine.lane", "QUARANTINE_LANE", "main").trim().toUpperCase(Locale.ROOT));
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (LANE == Lane.OFF || context.getTestMethod().isEmpty()) {
+            return ConditionEvaluationResult.enabled("Quarantine applies to test methods");
+        }
+        String test = TestHistory.key(context);
+        boolean quarantined = TestHistory.isQuarantined(test);
+        if (LANE == Lane.MAIN) {
+            return quarantined
+                    ? ConditionEvaluationResult.disabled("Quarantined, " + TestHistory.describe(test)
+                    + "; runs in the quarantine lane")
+                    : ConditionEvaluationResult.enabled("Not quarantined");
+        }
+        return quarantined
+                ? ConditionEvaluationResult.enabled("Quarantined, " + TestHistory.describe(test))
+                : ConditionEvaluationResult.disabled("Not quarantined; runs in the main lane");
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (LANE == Lane.QUARANTINE) {
+            Allure.label("tag", "quarantined");
+            Allure.step("Quarantined, " + TestHistory.describe(TestHistory.key(context)));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package flaky;
+
+import config.Settings;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.opentest4j.TestAbortedException;
+
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs a failed {@link RetryingTest} again instead of failing the run, and records every
+ * test's outcome in {@link TestHistory}.
+ *
+ * A test is retried up to -Dretry.max times (default 1, 0 turns retries off), as long as the
+ * run-wide budget of -Dretry.budget retries (default 5) lasts, so a broken build does not
+ * quietly run everything twice. Every attempt is a test template invocation, so the engine
+ * gives it a fresh instance and runs all of its lifecycle methods and callbacks: e.g.
+ * {@link com.interviewcards.BaseTest} opens a fresh context and saves the failed attempt's
+ * screenshot and trace as usual. A failed attempt that is retried shows up as aborted with
+ * the failure as its cause, and an attempt that passed after a retry is tagged "flaky".
+ *
+ * The next attempt is only started once the previous one has finished. The thread that
+ * waits for it is handed over to the pool as a managed blocker, which lets the pool start a
+ * spare thread (see {@link browser.WorkerCountStrategy}) instead of stalling.
+ *
+ * Parameterized tests are templates themselves and cannot be retried this way; like plain
+ * {@code @Test} methods they run once, and their outcome is still recorded. Aborted tests
+ * (failed assumptions) are neither retried nor recorded.
+ */
+public class RetryExtension implements TestTemplateInvocationContextProvider, TestExecutionExceptionHandler,
+        AfterTestExecutionCallback, TestWatcher {
+
+    private static final int MAX_RETRIES = Math.max(0, Settings.getInt("retry.max", "RETRY_MAX", 1));
+    private static final AtomicInteger BUDGET = new AtomicInteger(
+            Math.max(0, Settings.getInt("retry.budget", "RETRY_BUDGET", 5)));
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RetryExtension.class);
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return context.getTestMethod().map(method -> method.isAnnotationPresent(RetryingTest.class)).orElse(false);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        Attempts attempts = context.getStore(NAMESPACE).getOrComputeIfAbsent(Attempts.class);
+        String displayName = context.getDisplayName();
+        return Stream.iterate(1, attempt -> attempt == 1 || attempts.awaitRetry(), attempt -> attempt + 1)
+                .map(attempt -> {
+                    attempts.start(attempt);
+                    return new TestTemplateInvocationContext() {
+                        @Override
+                        public String getDisplayName(int invocationIndex) {
+                            return attempt == 1 ? displayName : displayName + " (retry " + (attempt - 1) + ")";
+                        }
+                    };
+                });
+    }
+
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable failure) throws Throwable {
+        Optional<Attempts> attempts = attemptsOf(context);
+        if (attempts.isEmpty() || failure instanceof TestAbortedException
+                || attempts.get().number > MAX_RETRIES || !takeFromBudget()) {
+            throw failure;
+        }
+        attempts.get().retry = true;
+        throw new TestAbortedException("Attempt " + attempts.get().number + " failed, retrying: " + failure, failure);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Optional<Throwable> failure = context.getExecutionException();
+        if (failure.isPresent() && failure.get() instanceof TestAbortedException) {
+            return;
+        }
+        String test = TestHistory.key(context);
+        if (failure.isPresent()) {
+            TestHistory.record(test, TestHistory.Outcome.FAILED);
+        } else if (attemptsOf(context).map(attempts -> attempts.number > 1).orElse(false)) {
+            Allure.label("tag", "flaky");
+            TestHistory.record(test, TestHistory.Outcome.FLAKY);
+        } else {
+            TestHistory.record(test, TestHistory.Outcome.PASSED);
+        }
+    }
+
+    // Every way an invocation can end lets the next attempt be decided
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        attemptsOf(context).ifPresent(Attempts::finish);
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        attemptsOf(context).ifPresent(Attempts::finish);
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        attemptsOf(context).ifPresent(Attempts::finish);
+    }
+
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        attemptsOf(context).ifPresent(Attempts::finish);
+    }
+
+    /**
+     * The attempts of the {@link RetryingTest} an invocation belongs to; empty for other tests.
+     */
+    private static Optional<Attempts> attemptsOf(ExtensionContext context) {
+        return context.getParent().map(parent -> parent.getStore(NAMESPACE).get(Attempts.class, Attempts.class));
+    }
+
+    private static boolean takeFromBudget() {
+        return BUDGET.getAndUpdate(left -> Math.max(0, left - 1)) > 0;
+    }
+
+    /**
+     * The current attempt of one retrying test; attempts never overlap.
+     */
+    static final class Attempts implements ForkJoinPool.ManagedBlocker {
+
+        private final Semaphore finished = new Semaphore(0);
+        private volatile int number;
+        private volatile boolean retry;
+
+        void start(int attempt) {
+            number = attempt;
+            retry = false;
+        }
+
+        void finish() {
+            finished.release();
+        }
+
+        /**
+         * Waits for the current attempt to finish and tells whether it asked for a retry.
+         */
+        boolean awaitRetry() {
+            try {
+                ForkJoinPool.managedBlock(this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return retry;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            finished.acquire();
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return finished.tryAcquire();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package flaky;
+
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that is run again when it fails, in place of {@code @Test}. Every attempt is
+ * an invocation of its own, with its own {@code @BeforeEach}, {@code @AfterEach} and
+ * callbacks; see {@link RetryExtension}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@TestTemplate
+@ExtendWith(RetryExtension.class)
+public @interface RetryingTest {
+}
@@ -0,0 +1,161 @@
+package flaky;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import config.Settings;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Outcome of every test over its recent runs, kept in -Dtest.history (default .test-history.json),
+ * keyed by test class and method.
+ *
+ * A run counts as flaky for a test only when it passed after a retry. A failure is never
+ * counted as flaky, so a regression keeps failing the main lane instead of being
+ * quarantined away. A test whose share of flaky runs among the last -Dquarantine.window runs
+ * (default 20) reaches -Dquarantine.threshold (default 0.2) is quarantined, once it has at
+ * least -Dquarantine.minRuns runs (default 5). Clean runs push the flaky ones out of the
+ * window, so a fixed test leaves quarantine on its own.
+ *
+ * The history is read once when the run starts, so quarantine decisions do not change
+ * during a run. Outcomes are merged into the file when the launcher session ends; the
+ * main and quarantine lanes may run side by side, so writes hold a file lock.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener.
+ */
+public class TestHistory implements LauncherSessionListener {
+
+    enum Outcome {
+        PASSED, FLAKY, FAILED
+    }
+
+    static final Path FILE = Paths.get(Settings.get("test.history", "TEST_HISTORY", ".test-history.json"));
+
+    private static final int WINDOW = Math.max(1, Settings.getInt("quarantine.window", "QUARANTINE_WINDOW", 20));
+    private static final int MIN_RUNS = Math.max(1, Settings.getInt("quarantine.minRuns", "QUARANTINE_MIN_RUNS", 5));
+    private static final double THRESHOLD = Double.parseDouble(
+            Settings.get("quarantine.threshold", "QUARANTINE_THRESHOLD", "0.2"));
+
+    private static final Gson GSON = new Gson();
+    private static final TypeToken<TreeMap<String, List<Outcome>>> TYPE = new TypeToken<>() {
+    };
+
+    private static final Map<String, List<Outcome>> PREVIOUS = load();
+    private static final ConcurrentMap<String, Outcome> CURRENT = new ConcurrentHashMap<>();
+
+    static String key(ExtensionContext context) {
+        return context.getRequiredTestClass().getName() + "#" + context.getRequiredTestMethod().getName();
+    }
+
+    /**
+     * Records this run's outcome for a test; of several invocations (parameterized tests)
+     * the worst one counts.
+     */
+    static void record(String test, Outcome outcome) {
+        CURRENT.merge(test, outcome, (previous, latest) -> previous.compareTo(latest) >= 0 ? previous : latest);
+    }
+
+    static boolean isQuarantined(String test) {
+        return isQuarantined(PREVIOUS.getOrDefault(test, List.of()));
+    }
+
+    static boolean isQuarantined(List<Outcome> runs) {
+        return runs.size() >= MIN_RUNS && flakyRuns(runs) >= THRESHOLD * runs.size();
+    }
+
+    /**
+     * E.g. "flaky in 4 of the last 10 runs", for skip reasons and reports.
+     */
+    static String describe(String test) {
+        List<Outcome> runs = PREVIOUS.getOrDefault(test, List.of());
+        return "flaky in " + flakyRuns(runs) + " of the last " + runs.size() + " runs";
+    }
+
+    private static long flakyRuns(List<Outcome> runs) {
+        return runs.stream().filter(outcome -> outcome == Outcome.FLAKY).count();
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (CURRENT.isEmpty()) {
+            return;
+        }
+        try {
+            merge(Map.copyOf(CURRENT));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to record test history: " + e.getMessage());
+        }
+        CURRENT.clear();
+    }
+
+    private static void merge(Map<String, Outcome> outcomes) {
+        try {
+            Path parent = FILE.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(FILE,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Map<String, List<Outcome>> history = parse(
+                        new String(Channels.newInputStream(channel).readAllBytes(), StandardCharsets.UTF_8));
+                outcomes.forEach((test, outcome) -> {
+                    List<Outcome> runs = new ArrayList<>(history.getOrDefault(test, List.of()));
+                    runs.add(outcome);
+                    history.put(test, runs.subList(Math.max(0, runs.size() - WINDOW), runs.size()));
+                });
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(GSON.toJson(history).getBytes(StandardCharsets.UTF_8)), 0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot update test history " + FILE.toAbsolutePath(), e);
+        }
+    }
+
+    private static Map<String, List<Outcome>> load() {
+        if (!Files.exists(FILE)) {
+            return Map.of();
+        }
+        try {
+            return parse(Files.readString(FILE, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to read test history " + FILE.toAbsolutePath() + ": " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static Map<String, List<Outcome>> parse(String json) {
+        if (json.isBlank()) {
+            return new TreeMap<>();
+        }
+        try {
+            Map<String, List<Outcome>> history = GSON.fromJson(json, TYPE.getType());
+            return history != null ? history : new TreeMap<>();
+        } catch (JsonParseException e) {
+            System.err.println("Ignoring unreadable test history: " + e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package flaky;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static flaky.TestHistory.Outcome.FAILED;
+import static flaky.TestHistory.Outcome.FLAKY;
+import static flaky.TestHistory.Outcome.PASSED;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Quarantine decisions with the default window (20), minimum runs (5) and threshold (0.2).
+ */
+class TestHistoryTest {
+
+    @Test
+    void flakyTestIsQuarantinedTest() {
+        assertTrue(TestHistory.isQuarantined(runs(PASSED, FLAKY, PASSED, PASSED, FLAKY)));
+    }
+
+    @Test
+    void tooFewRunsAreNotQuarantinedTest() {
+        assertFalse(TestHistory.isQuarantined(runs(FLAKY, FLAKY, FLAKY, FLAKY)));
+    }
+
+    @Test
+    void alwaysFailingTestIsNotQuarantinedTest() {
+        assertFalse(TestHistory.isQuarantined(Collections.nCopies(20, FAILED)));
+    }
+
+    @Test
+    void singleFailureIsNotQuarantinedTest() {
+        assertFalse(TestHistory.isQuarantined(runs(PASSED, PASSED, PASSED, PASSED, FAILED)));
+    }
+
+    @Test
+    void newlyRegressedTestIsNotQuarantinedTest() {
+        List<TestHistory.Outcome> runs = new ArrayList<>(Collections.nCopies(16, PASSED));
+        runs.addAll(Collections.nCopies(4, FAILED));
+        assertFalse(TestHistory.isQuarantined(runs));
+    }
+
+    private static List<TestHistory.Outcome> runs(TestHistory.Outcome... outcomes) {
+        return List.of(outcomes);
+    }
+}
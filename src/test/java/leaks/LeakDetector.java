@@ -0,0 +1,140 @@
+package leaks;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import config.Settings;
+import io.qameta.allure.Allure;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Repeats a UI cycle (e.g. open and cancel a modal) in one page and checks that the page's
+ * memory does not grow with it.
+ *
+ * After -Dleak.warmup cycles (default 3, so first-use caches are not mistaken for a leak)
+ * the cycle runs -Dleak.cycles times (default 20). Before the first measured cycle and
+ * after every -Dleak.sampleEvery cycles (default 2) a garbage collection is forced and
+ * Chromium's performance metrics are sampled: JS heap in use, DOM nodes and JS event
+ * listeners. A least-squares line through each series gives its growth per cycle; a
+ * series growing faster than its limit fails the check:
+ * -Dleak.maxGrowth.heapBytes (default 16384), -Dleak.maxGrowth.nodes (default 2) and
+ * -Dleak.maxGrowth.listeners (default 0.5) per cycle.
+ *
+ * The samples are attached to the Allure result as CSV (one row per sample, ready to chart)
+ * together with the fitted growth.
+ */
+public class LeakDetector {
+
+    private static final int CYCLES = Math.max(2, Settings.getInt("leak.cycles", "LEAK_CYCLES", 20));
+    private static final int WARMUP = Math.max(0, Settings.getInt("leak.warmup", "LEAK_WARMUP", 3));
+    private static final int SAMPLE_EVERY = Math.max(1, Settings.getInt("leak.sampleEvery", "LEAK_SAMPLE_EVERY", 2));
+
+    /**
+     * Chromium metric name to the growth per cycle it may show.
+     */
+    private static final Map<String, Double> MAX_GROWTH = new LinkedHashMap<>();
+
+    static {
+        MAX_GROWTH.put("JSHeapUsedSize", limit("heapBytes", 16_384));
+        MAX_GROWTH.put("Nodes", limit("nodes", 2));
+        MAX_GROWTH.put("JSEventListeners", limit("listeners", 0.5));
+    }
+
+    private final CDPSession session;
+
+    public LeakDetector(Page page) {
+        this.session = page.context().newCDPSession(page);
+        session.send("Performance.enable");
+    }
+
+    /**
+     * Runs the cycle as configured, attaches the samples and fails if any metric grows
+     * faster than its limit.
+     */
+    public void assertNoGrowth(String name, Runnable cycle) {
+        for (int i = 0; i < WARMUP; i++) {
+            cycle.run();
+        }
+
+        List<Integer> cycles = new ArrayList<>();
+        Map<String, List<Double>> series = new LinkedHashMap<>();
+        MAX_GROWTH.keySet().forEach(metric -> series.put(metric, new ArrayList<>()));
+        sample(0, cycles, series);
+        for (int i = 1; i <= CYCLES; i++) {
+            cycle.run();
+            if (i % SAMPLE_EVERY == 0 || i == CYCLES) {
+                sample(i, cycles, series);
+            }
+        }
+
+        List<String> leaks = new ArrayList<>();
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+                "%s: %d cycles after %d warm-up cycles, %d samples%n", name, CYCLES, WARMUP, cycles.size()));
+        series.forEach((metric, values) -> {
+            double growth = slope(cycles, values);
+            double limit = MAX_GROWTH.get(metric);
+            summary.append(String.format(Locale.ROOT, "  %-17s %10.0f -> %10.0f  growth %10.2f per cycle (limit %.2f)%n",
+                    metric, values.get(0), values.get(values.size() - 1), growth, limit));
+            if (growth > limit) {
+                leaks.add(String.format(Locale.ROOT, "%s grows by %.2f per cycle (limit %.2f)", metric, growth, limit));
+            }
+        });
+
+        Allure.addAttachment(name + ": memory samples", "text/csv", csv(cycles, series), ".csv");
+        Allure.addAttachment(name + ": memory growth", "text/plain", summary.toString(), ".txt");
+        if (!leaks.isEmpty()) {
+            throw new AssertionError(name + " leaks: " + String.join("; ", leaks));
+        }
+    }
+
+    private void sample(int cycle, List<Integer> cycles, Map<String, List<Double>> series) {
+        // Only what is still reachable counts
+        session.send("HeapProfiler.collectGarbage");
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (JsonElement metric : session.send("Performance.getMetrics").getAsJsonArray("metrics")) {
+            JsonObject entry = metric.getAsJsonObject();
+            metrics.put(entry.get("name").getAsString(), entry.get("value").getAsDouble());
+        }
+        cycles.add(cycle);
+        series.forEach((name, values) -> values.add(metrics.getOrDefault(name, 0.0)));
+    }
+
+    /**
+     * Least-squares slope of the values over the cycles.
+     */
+    private static double slope(List<Integer> cycles, List<Double> values) {
+        double meanX = cycles.stream().mapToDouble(Integer::doubleValue).average().orElse(0);
+        double meanY = values.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < cycles.size(); i++) {
+            double dx = cycles.get(i) - meanX;
+            covariance += dx * (values.get(i) - meanY);
+            variance += dx * dx;
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    private static String csv(List<Integer> cycles, Map<String, List<Double>> series) {
+        StringBuilder csv = new StringBuilder("cycle," + String.join(",", series.keySet()) + "\n");
+        for (int i = 0; i < cycles.size(); i++) {
+            csv.append(cycles.get(i));
+            for (List<Double> values : series.values()) {
+                csv.append(',').append(String.format(Locale.ROOT, "%.0f", values.get(i)));
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static double limit(String name, double defaultValue) {
+        return Double.parseDouble(Settings.get("leak.maxGrowth." + name,
+                "LEAK_MAX_GROWTH_" + name.toUpperCase(Locale.ROOT), String.valueOf(defaultValue)));
+    }
+}
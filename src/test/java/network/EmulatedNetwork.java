@@ -0,0 +1,17 @@
+package network;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test (or every test of a class) on an emulated link, e.g. {@code @EmulatedNetwork("3g")}.
+ * The name is one of the {@link NetworkCondition} names; the method annotation wins over the class one.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface EmulatedNetwork {
+
+    String value();
+}
@@ -0,0 +1,115 @@
+package network;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.options.HarMode;
+import com.microsoft.playwright.options.HarNotFound;
+import com.microsoft.playwright.options.RouteFromHarUpdateContentPolicy;
+import config.Config;
+import config.Settings;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Records the network traffic of each test into a HAR file (-Dhar=record) and serves it back
+ * through {@link BrowserContext#routeFromHAR} instead of the backend (-Dhar=replay).
+ *
+ * Recordings live in src/test/resources/har/&lt;-Dhar.version&gt;/&lt;TestClass&gt;/&lt;test&gt;.har, one per
+ * test, and one per invocation of a parameterized test (named after its arguments). Retry
+ * attempts of a test share its recording. A backend change can be recorded as a new version
+ * next to the old one.
+ * Only URLs matching -Dhar.url are recorded and replayed (a regex, default: everything under
+ * BASE_URL). Playwright matches a request to a recorded one by method and URL, and for POSTs
+ * by the exact body. What happens on a miss is set by -Dhar.notFound: "abort" fails the
+ * request so the test fails fast, "fallback" passes it on to the network.
+ *
+ * The routes are added when a test leases its context, after the {@link RequestFilter} route,
+ * so they see requests first and fall back to it.
+ */
+public class HarRouting {
+
+    public enum Mode {
+        OFF, RECORD, REPLAY;
+
+        static Mode byName(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown HAR mode '" + name + "', use record, replay or off");
+            }
+        }
+    }
+
+    public static final Mode MODE = Mode.byName(Settings.get("har", "HAR", "off"));
+
+    private static final Path ROOT = Paths.get(Settings.get("har.dir", "HAR_DIR", "src/test/resources/har"))
+            .resolve(Settings.get("har.version", "HAR_VERSION", "v1"));
+    private static final Pattern URL = Pattern.compile(
+            Settings.get("har.url", "HAR_URL", Pattern.quote(Config.BASE_URL) + ".*"));
+    private static final HarNotFound NOT_FOUND = HarNotFound.valueOf(
+            Settings.get("har.notFound", "HAR_NOT_FOUND", "abort").trim().toUpperCase(Locale.ROOT));
+
+    private HarRouting() {
+    }
+
+    /**
+     * Starts recording into, or replaying from, the test's HAR file. Does nothing when off.
+     * In replay mode a test without a recording fails unless misses fall back to the network.
+     */
+    public static void apply(BrowserContext context, TestInfo testInfo) {
+        if (MODE == Mode.OFF) {
+            return;
+        }
+        Path har = harFile(testInfo);
+        if (MODE == Mode.RECORD) {
+            try {
+                Files.createDirectories(har.getParent());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create " + har.getParent(), e);
+            }
+            // Written when the test's context is closed
+            context.routeFromHAR(har, new BrowserContext.RouteFromHAROptions()
+                    .setUrl(URL)
+                    .setUpdate(true)
+                    .setUpdateContent(RouteFromHarUpdateContentPolicy.EMBED)
+                    .setUpdateMode(HarMode.MINIMAL));
+            return;
+        }
+        if (!Files.exists(har)) {
+            if (NOT_FOUND == HarNotFound.ABORT) {
+                throw new IllegalStateException("No HAR recording for " + testInfo.getDisplayName() + " at " + har
+                        + "; record it with -Dhar=record or run with -Dhar.notFound=fallback");
+            }
+            System.err.println("No HAR recording at " + har + ", using the network");
+            return;
+        }
+        context.routeFromHAR(har, new BrowserContext.RouteFromHAROptions()
+                .setUrl(URL)
+                .setNotFound(NOT_FOUND));
+    }
+
+    /**
+     * The method name, plus the invocation's display name (index and arguments) for a
+     * parameterized test. Other display names are left out: they may be custom, or carry the
+     * retry suffix of {@link flaky.RetryExtension}.
+     */
+    private static Path harFile(TestInfo testInfo) {
+        String testClass = testInfo.getTestClass().map(Class::getSimpleName).orElse("unknown");
+        String method = testInfo.getTestMethod().map(Method::getName).orElse("unknown");
+        boolean parameterized = testInfo.getTestMethod()
+                .map(m -> m.isAnnotationPresent(ParameterizedTest.class))
+                .orElse(false);
+        String name = parameterized
+                ? method + "-" + testInfo.getDisplayName().replaceAll("[^A-Za-z0-9._-]+", "_")
+                : method;
+        return ROOT.resolve(testClass).resolve(name + ".har");
+    }
+}
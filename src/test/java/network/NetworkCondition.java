@@ -0,0 +1,95 @@
+package network;
+
+import config.Settings;
+
+import java.util.Locale;
+
+/**
+ * Named link conditions that {@link NetworkEmulation} applies to a test's pages.
+ * Selected per test with {@link EmulatedNetwork}, per parameter through
+ * {@code BaseTest.emulateNetwork}, or for the whole run with -Dnetwork.condition.
+ *
+ * Every number can be overridden per condition, e.g.
+ * -Dnetwork.condition.3g.latency.ms=400 -Dnetwork.condition.3g.download.kbps=500
+ *
+ * There is no packet loss: Chromium only applies it to WebRTC, not to page and API traffic.
+ */
+public enum NetworkCondition {
+
+    /**
+     * No emulation: the link of the machine running the tests.
+     */
+    NONE("none", 0, 0, 0),
+
+    THREE_G("3g", 300, 750, 250),
+
+    SLOW_4G("slow-4g", 150, 1_600, 750),
+
+    /**
+     * Fast but distant, e.g. a satellite link: round trips dominate.
+     */
+    HIGH_LATENCY("high-latency", 600, 10_000, 5_000);
+
+    private final String conditionName;
+    private final long latencyMillis;
+    private final long downloadKbps;
+    private final long uploadKbps;
+
+    NetworkCondition(String conditionName, long latencyMillis, long downloadKbps, long uploadKbps) {
+        this.conditionName = conditionName;
+        this.latencyMillis = setting("latency.ms", latencyMillis);
+        this.downloadKbps = setting("download.kbps", downloadKbps);
+        this.uploadKbps = setting("upload.kbps", uploadKbps);
+    }
+
+    private long setting(String name, long defaultValue) {
+        return Settings.getLong(property(name), variable(name), defaultValue);
+    }
+
+    private String property(String name) {
+        return "network.condition." + conditionName + "." + name;
+    }
+
+    private String variable(String name) {
+        return property(name).toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]+", "_");
+    }
+
+    public String conditionName() {
+        return conditionName;
+    }
+
+    /**
+     * Added to every request's round trip.
+     */
+    public long latencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * 0 means unlimited.
+     */
+    public long downloadKbps() {
+        return downloadKbps;
+    }
+
+    /**
+     * 0 means unlimited.
+     */
+    public long uploadKbps() {
+        return uploadKbps;
+    }
+
+    public static NetworkCondition byName(String name) {
+        for (NetworkCondition condition : values()) {
+            if (condition.conditionName.equalsIgnoreCase(name.trim())) {
+                return condition;
+            }
+        }
+        throw new IllegalArgumentException("Unknown network condition '" + name + "'");
+    }
+
+    @Override
+    public String toString() {
+        return conditionName;
+    }
+}
@@ -0,0 +1,237 @@
+package network;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import config.Settings;
+import instrumentation.LatencyHistogram;
+import instrumentation.StepMetrics;
+import io.qameta.allure.Allure;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import reporting.StepTimingReport;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Applies a {@link NetworkCondition} to a test's context through Chromium's
+ * Network.emulateNetworkConditions, and reports how the login and modal steps behave
+ * under each condition.
+ *
+ * Contexts are created the same way for every test, so the condition is applied once
+ * the test has its context: to its open page, and to every
+ * page it opens later. Each context gets a single page listener that emulates whatever
+ * condition is current, so switching conditions within a test does not stack them.
+ * Contexts are never reused, so nothing has to be undone.
+ *
+ * While a condition is active, LoginPage.login and MainPage.clickAddCard are timed per
+ * condition. When the launcher session ends the percentiles are printed, written to
+ * -Dnetwork.condition.report (default target/network-conditions.json) and merged into the
+ * Allure environment, so they show on the report's overview page; every emulated test
+ * also carries the condition as an Allure parameter. The reports of several shards can be
+ * combined with {@link #merge(List, Path, Path)}.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener.
+ */
+public class NetworkEmulation implements LauncherSessionListener {
+
+    public static final NetworkCondition DEFAULT = NetworkCondition.byName(
+            Settings.get("network.condition", "NETWORK_CONDITION", NetworkCondition.NONE.conditionName()));
+
+    private static final Set<String> REPORTED_STEPS = Set.of("LoginPage.login", "MainPage.clickAddCard");
+    private static final Path REPORT_FILE = Paths.get(
+            Settings.get("network.condition.report", "NETWORK_CONDITION_REPORT", "target/network-conditions.json"));
+
+    private static final ThreadLocal<NetworkCondition> CURRENT = new ThreadLocal<>();
+    private static final ConcurrentMap<String, LatencyHistogram> LATENCIES = new ConcurrentHashMap<>();
+    // The CDP parameters new pages of each emulated context get; null once emulation ended
+    private static final ConcurrentMap<BrowserContext, AtomicReference<JsonObject>> EMULATED = new ConcurrentHashMap<>();
+
+    static {
+        StepMetrics.addListener((step, nanos, failure) -> {
+            NetworkCondition condition = CURRENT.get();
+            if (condition != null && failure == null && REPORTED_STEPS.contains(step)) {
+                LATENCIES.computeIfAbsent(condition + " " + step, key -> new LatencyHistogram()).record(nanos);
+            }
+        });
+    }
+
+    /**
+     * Emulates the condition on every page of the context, for the test running on the
+     * current thread. {@link NetworkCondition#NONE} lifts an earlier condition, if any, and
+     * ends the emulation bookkeeping.
+     */
+    public static void apply(BrowserContext context, NetworkCondition condition) {
+        if (condition == NetworkCondition.NONE) {
+            AtomicReference<JsonObject> emulated = EMULATED.get(context);
+            if (emulated != null && emulated.getAndSet(null) != null) {
+                JsonObject unthrottled = params(0, -1, -1);
+                context.pages().forEach(page -> emulate(context, page, unthrottled));
+            }
+            CURRENT.remove();
+            return;
+        }
+        JsonObject params = params(condition.latencyMillis(), throughput(condition.downloadKbps()),
+                throughput(condition.uploadKbps()));
+        EMULATED.computeIfAbsent(context, NetworkEmulation::listenForPages).set(params);
+        for (Page page : context.pages()) {
+            emulate(context, page, params);
+        }
+
+        CURRENT.set(condition);
+        Allure.parameter("Network", condition.conditionName());
+    }
+
+    /**
+     * Registers the context's one page listener; it emulates the condition current when the
+     * page opens.
+     */
+    private static AtomicReference<JsonObject> listenForPages(BrowserContext context) {
+        AtomicReference<JsonObject> emulated = new AtomicReference<>();
+        context.onPage(page -> {
+            JsonObject params = emulated.get();
+            if (params != null) {
+                emulate(context, page, params);
+            }
+        });
+        context.onClose(EMULATED::remove);
+        return emulated;
+    }
+
+    private static JsonObject params(long latencyMillis, double downloadThroughput, double uploadThroughput) {
+        JsonObject params = new JsonObject();
+        params.addProperty("offline", false);
+        params.addProperty("latency", latencyMillis);
+        params.addProperty("downloadThroughput", downloadThroughput);
+        params.addProperty("uploadThroughput", uploadThroughput);
+        return params;
+    }
+
+    /**
+     * The condition emulated for the test running on the current thread, {@link NetworkCondition#NONE} if none.
+     */
+    public static NetworkCondition current() {
+        NetworkCondition condition = CURRENT.get();
+        return condition != null ? condition : NetworkCondition.NONE;
+    }
+
+    /**
+     * Stops attributing the current thread's steps to a condition.
+     */
+    public static void finish() {
+        CURRENT.remove();
+    }
+
+    private static void emulate(BrowserContext context, Page page, JsonObject params) {
+        CDPSession session = context.newCDPSession(page);
+        session.send("Network.enable");
+        session.send("Network.emulateNetworkConditions", params);
+    }
+
+    /**
+     * Kbit/s to the bytes per second CDP expects; -1 disables throttling.
+     */
+    private static double throughput(long kbps) {
+        return kbps > 0 ? kbps * 1024 / 8.0 : -1;
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (LATENCIES.isEmpty()) {
+            return;
+        }
+        write(LATENCIES, REPORT_FILE, allureResults());
+    }
+
+    /**
+     * Adds up the network condition reports of several runs (e.g. one file per shard) into
+     * one file and the Allure environment of the combined results. Missing inputs are skipped.
+     */
+    public static void merge(List<Path> inputs, Path output, Path allureResults) throws IOException {
+        Map<String, LatencyHistogram> latencies = new TreeMap<>();
+        for (Path input : inputs) {
+            if (!Files.exists(input)) {
+                continue;
+            }
+            JsonObject report = JsonParser.parseString(Files.readString(input)).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> entry : report.entrySet()) {
+                latencies.computeIfAbsent(entry.getKey(), key -> new LatencyHistogram())
+                        .add(StepTimingReport.histogramOf(entry.getValue().getAsJsonObject()));
+            }
+        }
+        if (!latencies.isEmpty()) {
+            write(latencies, output, allureResults);
+        }
+    }
+
+    private static Path allureResults() {
+        return Paths.get(System.getProperty("allure.results.directory", "allure-results"));
+    }
+
+    private static void write(Map<String, LatencyHistogram> latencies, Path reportFile, Path allureResults) {
+        Map<String, Map<String, Object>> report = new TreeMap<>();
+        StringBuilder table = new StringBuilder("Step latency by network condition:\n");
+        Map<String, String> environment = new LinkedHashMap<>();
+        new TreeMap<>(latencies).forEach((key, histogram) -> {
+            report.put(key, StepTimingReport.summary(histogram));
+            String line = String.format(Locale.ROOT, "n=%d p50=%.0f ms p95=%.0f ms max=%.0f ms",
+                    histogram.count(), histogram.percentileMillis(50), histogram.percentileMillis(95),
+                    histogram.maxMillis());
+            table.append(String.format(Locale.ROOT, "  %-40s %s%n", key, line));
+            environment.put("Network " + key.replace(' ', '.'), line);
+        });
+        System.out.print(table);
+
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            Files.writeString(reportFile, new GsonBuilder().setPrettyPrinting().create().toJson(report),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Failed to write network condition report: " + e.getMessage());
+        }
+        mergeIntoAllureEnvironment(allureResults, environment);
+    }
+
+    /**
+     * Sets the entries in the Allure environment, keeping what others put there; a key that
+     * is already there (e.g. from a run in the same results directory) is replaced, not repeated.
+     */
+    private static void mergeIntoAllureEnvironment(Path allureResults, Map<String, String> entries) {
+        Path file = allureResults.resolve("environment.properties");
+        Properties properties = new Properties();
+        try {
+            if (Files.exists(file)) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            }
+            properties.putAll(entries);
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to add network conditions to the Allure environment: " + e.getMessage());
+        }
+    }
+}
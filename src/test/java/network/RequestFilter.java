@@ -0,0 +1,111 @@
+package network;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import config.Settings;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the active {@link RoutingProfile} to browser contexts through {@link BrowserContext#route}
+ * and counts what it blocked or stubbed across the run.
+ *
+ * Only URLs the profile may act on are routed: those with a file extension of a blocked
+ * resource type and the stubbed URLs, combined into one regex that the Playwright driver
+ * matches itself. Every other request goes straight to the network, without a round trip
+ * to the test JVM and with the browser cache intact. A blocked type served without a
+ * typical extension therefore loads normally. Routed requests whose actual resource type
+ * is not blocked are passed on with {@link Route#fallback()}, so routes registered later
+ * (e.g. by a test) still see them.
+ * The totals are printed when the launcher session ends.
+ */
+public class RequestFilter implements LauncherSessionListener {
+
+    public static final RoutingProfile PROFILE = RoutingProfile.byName(
+            Settings.get("network.profile", "NETWORK_PROFILE", RoutingProfile.FUNCTIONAL_MINIMAL.profileName()));
+
+    private static final Pattern ROUTED = routedUrls(PROFILE);
+
+    private static final ConcurrentMap<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+    public static void install(BrowserContext context) {
+        if (!PROFILE.interceptsRequests()) {
+            return;
+        }
+        context.route(ROUTED, RequestFilter::handle);
+    }
+
+    /**
+     * One anchored regex for everything the profile may block or stub. It is evaluated by the
+     * driver in JavaScript, so it sticks to syntax both regex dialects share.
+     */
+    private static Pattern routedUrls(RoutingProfile profile) {
+        List<String> alternatives = new ArrayList<>();
+        String extensions = profile.blockedResourceTypes().stream()
+                .flatMap(type -> RoutingProfile.extensionsOf(type).stream())
+                .sorted()
+                .collect(Collectors.joining("|"));
+        if (!extensions.isEmpty()) {
+            alternatives.add("[^?#]*\\.(?:" + extensions + ")(?:[?#].*)?");
+        }
+        profile.stubbedUrls().forEach(stubbed -> alternatives.add(stubbed.pattern()));
+        return Pattern.compile(alternatives.stream()
+                .map(alternative -> "(?:" + alternative + ")")
+                .collect(Collectors.joining("|", "^(?:", ")$")), Pattern.CASE_INSENSITIVE);
+    }
+
+    private static void handle(Route route) {
+        Request request = route.request();
+
+        String resourceType = request.resourceType();
+        if (PROFILE.blockedResourceTypes().contains(resourceType)) {
+            count("blocked " + resourceType);
+            route.abort("blockedbyclient");
+            return;
+        }
+
+        String url = request.url();
+        for (Pattern stubbed : PROFILE.stubbedUrls()) {
+            if (stubbed.matcher(url).matches()) {
+                count("stubbed " + resourceType);
+                route.fulfill(new Route.FulfillOptions().setStatus(204));
+                return;
+            }
+        }
+
+        route.fallback();
+    }
+
+    private static void count(String key) {
+        COUNTERS.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Snapshot of how many requests were blocked or stubbed, by action and resource type.
+     */
+    public static Map<String, Long> counters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        COUNTERS.forEach((key, value) -> snapshot.put(key, value.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        Map<String, Long> counters = counters();
+        if (counters.isEmpty()) {
+            return;
+        }
+        System.out.println("Network profile '" + PROFILE + "' filtered requests: " + counters);
+    }
+}
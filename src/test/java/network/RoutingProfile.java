@@ -0,0 +1,95 @@
+package network;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Named sets of network rules applied to every test context by {@link RequestFilter}.
+ * Selected with -Dnetwork.profile (or NETWORK_PROFILE).
+ */
+public enum RoutingProfile {
+
+    /**
+     * Skips everything no functional test asserts on: images, media, fonts
+     * and analytics beacons. Stylesheets and first-party scripts still load,
+     * so visibility checks behave exactly as in a full load.
+     */
+    FUNCTIONAL_MINIMAL(
+            "functional-minimal",
+            Set.of("image", "media", "font"),
+            List.of(
+                    Pattern.compile("https?://([^/]+\\.)?(google-analytics|googletagmanager|doubleclick)\\.[^/]+/.*"),
+                    Pattern.compile("https?://([^/]+\\.)?(hotjar|segment|mixpanel|clarity)\\.[^/]+/.*"),
+                    Pattern.compile("https?://mc\\.yandex\\.[^/]+/.*"),
+                    Pattern.compile("https?://connect\\.facebook\\.net/.*")
+            )
+    ),
+
+    /**
+     * Loads the page exactly as a user's browser would.
+     */
+    FULL_FIDELITY("full-fidelity", Set.of(), List.of());
+
+    /**
+     * File extensions by which a blocked resource type is recognised before the request is sent.
+     */
+    private static final Map<String, List<String>> EXTENSIONS = Map.of(
+            "image", List.of("png", "jpe?g", "gif", "webp", "avif", "svg", "ico", "bmp"),
+            "media", List.of("mp4", "webm", "ogg", "mp3", "wav", "m4a"),
+            "font", List.of("woff2?", "ttf", "otf", "eot"));
+
+    private final String profileName;
+    private final Set<String> blockedResourceTypes;
+    private final List<Pattern> stubbedUrls;
+
+    RoutingProfile(String profileName, Set<String> blockedResourceTypes, List<Pattern> stubbedUrls) {
+        this.profileName = profileName;
+        this.blockedResourceTypes = blockedResourceTypes;
+        this.stubbedUrls = stubbedUrls;
+    }
+
+    public String profileName() {
+        return profileName;
+    }
+
+    /**
+     * Playwright resource types (see Request.resourceType()) that are aborted.
+     */
+    public Set<String> blockedResourceTypes() {
+        return blockedResourceTypes;
+    }
+
+    /**
+     * URLs answered locally with an empty 204 so the page does not wait on, or error about, them.
+     */
+    public List<Pattern> stubbedUrls() {
+        return stubbedUrls;
+    }
+
+    /**
+     * Regex fragments for the file extensions of a resource type; none for unknown types.
+     */
+    public static List<String> extensionsOf(String resourceType) {
+        return EXTENSIONS.getOrDefault(resourceType, List.of());
+    }
+
+    public boolean interceptsRequests() {
+        return !blockedResourceTypes.isEmpty() || !stubbedUrls.isEmpty();
+    }
+
+    public static RoutingProfile byName(String name) {
+        return Arrays.stream(values())
+                .filter(profile -> profile.profileName.equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unknown network profile '" + name + "', expected one of " + Arrays.toString(values())));
+    }
+
+    @Override
+    public String toString() {
+        return profileName;
+    }
+}
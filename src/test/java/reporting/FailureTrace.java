@@ -0,0 +1,157 @@
+package reporting;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Tracing;
+import config.Settings;
+import instrumentation.StepMetrics;
+import io.qameta.allure.Allure;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Playwright tracing that only costs anything when a test fails (-Dtrace=on-failure).
+ *
+ * Tracing is started when a context is created, and the trace stays in the Playwright
+ * driver until the test ends. A passing test just drops its chunk; nothing is written.
+ * A failing test gets the chunk attached to its Allure result as a zip that opens in the
+ * Playwright trace viewer.
+ *
+ * To keep long tests bounded the chunk is rotated every -Dtrace.steps top-level page-object
+ * steps (default 40); steps run by another step, like LoginPage.open within LoginPage.login,
+ * are not counted. The finished chunk replaces the previous one in a temp file and a new
+ * chunk starts. A failure therefore always has at least the last -Dtrace.steps steps,
+ * split over at most two attachments. Only tests that run past that many steps pay for
+ * the rotation write.
+ */
+public class FailureTrace {
+
+    private static final boolean ENABLED = "on-failure".equalsIgnoreCase(Settings.get("trace", "TRACE", "off"));
+    private static final int KEEP_STEPS = Math.max(1, Settings.getInt("trace.steps", "TRACE_STEPS", 40));
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    static {
+        if (ENABLED) {
+            StepMetrics.addListener((step, nanos, failure) -> {
+                Recording recording = CURRENT.get();
+                if (recording != null && StepMetrics.depth() == 0 && ++recording.steps >= KEEP_STEPS) {
+                    recording.rotate();
+                }
+            });
+        }
+    }
+
+    private FailureTrace() {
+    }
+
+    /**
+     * Starts tracing on a freshly created context. Does nothing unless tracing is enabled.
+     */
+    public static void install(BrowserContext context) {
+        if (!ENABLED) {
+            return;
+        }
+        context.tracing().start(new Tracing.StartOptions()
+                .setScreenshots(true)
+                .setSnapshots(true));
+    }
+
+    /**
+     * Makes the context the one traced for the test running on the current thread.
+     */
+    public static void begin(BrowserContext context) {
+        if (!ENABLED) {
+            return;
+        }
+        CURRENT.set(new Recording(context));
+    }
+
+    /**
+     * Ends the current thread's recording: attaches it to the Allure result if the test
+     * failed, drops it otherwise. Never throws.
+     */
+    public static void finish(boolean failed) {
+        Recording recording = CURRENT.get();
+        CURRENT.remove();
+        if (recording == null) {
+            return;
+        }
+        if (failed) {
+            recording.attach();
+        } else {
+            recording.drop();
+        }
+    }
+
+    private static final class Recording {
+
+        private final BrowserContext context;
+        private Path previousChunk;
+        private int steps;
+
+        private Recording(BrowserContext context) {
+            this.context = context;
+        }
+
+        private void rotate() {
+            steps = 0;
+            try {
+                if (previousChunk == null) {
+                    previousChunk = Files.createTempFile("trace-", ".zip");
+                }
+                context.tracing().stopChunk(new Tracing.StopChunkOptions().setPath(previousChunk));
+                context.tracing().startChunk();
+            } catch (Exception e) {
+                System.err.println("Failed to rotate trace chunk: " + e.getMessage());
+            }
+        }
+
+        private void attach() {
+            Path lastChunk = null;
+            try {
+                lastChunk = Files.createTempFile("trace-", ".zip");
+                context.tracing().stopChunk(new Tracing.StopChunkOptions().setPath(lastChunk));
+                if (previousChunk != null) {
+                    attachFile("Playwright trace (earlier steps)", previousChunk);
+                }
+                attachFile("Playwright trace", lastChunk);
+            } catch (Exception e) {
+                // The test may have closed its context itself
+                System.err.println("Failed to save trace: " + e.getMessage());
+            } finally {
+                deleteQuietly(lastChunk);
+                deleteQuietly(previousChunk);
+            }
+        }
+
+        private void drop() {
+            try {
+                context.tracing().stopChunk();
+            } catch (Exception e) {
+                // Context already closed: the trace went with it
+            } finally {
+                deleteQuietly(previousChunk);
+            }
+        }
+
+        private static void attachFile(String name, Path file) throws IOException {
+            try (InputStream in = Files.newInputStream(file)) {
+                Allure.addAttachment(name, "application/zip", in, ".zip");
+            }
+        }
+
+        private static void deleteQuietly(Path file) {
+            if (file == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Failed to delete " + file + ": " + e.getMessage());
+            }
+        }
+    }
+}
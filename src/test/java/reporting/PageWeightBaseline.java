@@ -0,0 +1,247 @@
+package reporting;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import config.Settings;
+import instrumentation.PagePerformance;
+import instrumentation.PageResource;
+import network.RequestFilter;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * What each page loaded the last time it stayed within its network budgets (-Dperf.network=true),
+ * kept in -Dperf.network.baseline (default .page-weight-baseline.json) and used to explain a
+ * budget violation: which requests are new, which are gone and which grew.
+ *
+ * Resources are keyed by URL without query string or fragment and summed per key. Every
+ * baseline also records the network profile (-Dnetwork.profile) it was captured under: a
+ * profile that blocks images and fonts loads a different page, so a baseline is only
+ * compared with captures under the same profile. The baseline is read once when the run
+ * starts; pages that stayed within budget replace their entry when the launcher session
+ * ends. Writes hold a file lock because shards and lanes running side by side share the file.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener.
+ */
+public class PageWeightBaseline implements LauncherSessionListener {
+
+    private static final Path FILE = Paths.get(
+            Settings.get("perf.network.baseline", "PERF_NETWORK_BASELINE", ".page-weight-baseline.json"));
+
+    private static final Gson GSON = new Gson();
+    private static final TypeToken<TreeMap<String, Baseline>> TYPE = new TypeToken<>() {
+    };
+
+    private static final Map<String, Baseline> PREVIOUS = load();
+    private static final ConcurrentMap<String, Baseline> CURRENT = new ConcurrentHashMap<>();
+
+    /**
+     * What one page loaded, and under which network profile.
+     */
+    private static final class Baseline {
+
+        private String profile;
+        private TreeMap<String, Weight> resources;
+
+        Baseline(String profile, TreeMap<String, Weight> resources) {
+            this.profile = profile;
+            this.resources = resources;
+        }
+    }
+
+    /**
+     * Requests and bytes of one resource key on one page.
+     */
+    private static final class Weight {
+
+        private String type;
+        private int requests;
+        private long bytes;
+    }
+
+    /**
+     * Request count and bytes by resource type, then every request, largest first.
+     */
+    static String breakdown(PagePerformance capture) {
+        List<PageResource> resources = capture.getResources();
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%s (%s): %d requests, %s%n",
+                capture.getPage(), capture.getUrl(), resources.size(),
+                kib(resources.stream().mapToLong(PageResource::getTransferBytes).sum())));
+
+        Map<String, long[]> byType = new TreeMap<>();
+        for (PageResource resource : resources) {
+            long[] totals = byType.computeIfAbsent(resource.getType(), type -> new long[2]);
+            totals[0]++;
+            totals[1] += resource.getTransferBytes();
+        }
+        byType.forEach((type, totals) -> text.append(String.format(Locale.ROOT, "  %-12s %4d  %12s%n",
+                type, totals[0], kib(totals[1]))));
+
+        text.append(String.format("%n"));
+        resources.stream()
+                .sorted(Comparator.comparingLong(PageResource::getTransferBytes).reversed())
+                .forEach(resource -> text.append(String.format(Locale.ROOT, "  %3d  %-10s %12s  %8.1f ms  %s%n",
+                        resource.getStatus(), resource.getType(), kib(resource.getTransferBytes()),
+                        resource.getMillis(), resource.getUrl())));
+        return text.toString();
+    }
+
+    /**
+     * What changed on the page since its baseline; empty if there is no baseline for it.
+     * A baseline captured under another network profile is not compared.
+     */
+    static Optional<String> diff(PagePerformance capture) {
+        Baseline baseline = PREVIOUS.get(capture.getPage());
+        if (baseline == null) {
+            return Optional.empty();
+        }
+        String profile = RequestFilter.PROFILE.profileName();
+        if (!profile.equals(baseline.profile)) {
+            return Optional.of(String.format(Locale.ROOT,
+                    "%s: baseline was captured with network profile %s, this run uses %s; not comparing%n",
+                    capture.getPage(), baseline.profile, profile));
+        }
+        Map<String, Weight> before = baseline.resources;
+        Map<String, Weight> after = summarize(capture.getResources());
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "%s vs baseline (network profile %s): requests %d -> %d, transferred %s -> %s%n",
+                capture.getPage(), profile, requests(before), requests(after), kib(bytes(before)), kib(bytes(after))));
+
+        for (String key : union(before, after)) {
+            Weight old = before.get(key);
+            Weight now = after.get(key);
+            if (old == null) {
+                text.append(String.format(Locale.ROOT, "  + %-10s %dx %12s  %s%n", now.type, now.requests, kib(now.bytes), key));
+            } else if (now == null) {
+                text.append(String.format(Locale.ROOT, "  - %-10s %dx %12s  %s%n", old.type, old.requests, kib(old.bytes), key));
+            } else if (now.bytes != old.bytes || now.requests != old.requests) {
+                text.append(String.format(Locale.ROOT, "  ~ %-10s %dx %s -> %dx %s  %s%n",
+                        now.type, old.requests, kib(old.bytes), now.requests, kib(now.bytes), key));
+            }
+        }
+        return Optional.of(text.toString());
+    }
+
+    /**
+     * Makes a capture that stayed within budget its page's next baseline.
+     */
+    static void accept(PagePerformance capture) {
+        CURRENT.put(capture.getPage(), new Baseline(RequestFilter.PROFILE.profileName(), summarize(capture.getResources())));
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (CURRENT.isEmpty()) {
+            return;
+        }
+        try {
+            merge(Map.copyOf(CURRENT));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update page weight baseline: " + e.getMessage());
+        }
+        CURRENT.clear();
+    }
+
+    private static TreeMap<String, Weight> summarize(List<PageResource> resources) {
+        TreeMap<String, Weight> weights = new TreeMap<>();
+        for (PageResource resource : resources) {
+            Weight weight = weights.computeIfAbsent(resource.getUrl().replaceAll("[?#].*$", ""), key -> new Weight());
+            weight.type = resource.getType();
+            weight.requests++;
+            weight.bytes += resource.getTransferBytes();
+        }
+        return weights;
+    }
+
+    private static TreeSet<String> union(Map<String, Weight> before, Map<String, Weight> after) {
+        TreeSet<String> keys = new TreeSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        return keys;
+    }
+
+    private static int requests(Map<String, Weight> weights) {
+        return weights.values().stream().mapToInt(weight -> weight.requests).sum();
+    }
+
+    private static long bytes(Map<String, Weight> weights) {
+        return weights.values().stream().mapToLong(weight -> weight.bytes).sum();
+    }
+
+    private static String kib(long bytes) {
+        return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024.0);
+    }
+
+    private static void merge(Map<String, Baseline> accepted) {
+        try {
+            Path parent = FILE.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(FILE,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Map<String, Baseline> baseline = parse(
+                        new String(Channels.newInputStream(channel).readAllBytes(), StandardCharsets.UTF_8));
+                baseline.putAll(accepted);
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(GSON.toJson(baseline).getBytes(StandardCharsets.UTF_8)), 0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot update page weight baseline " + FILE.toAbsolutePath(), e);
+        }
+    }
+
+    private static Map<String, Baseline> load() {
+        if (!Files.exists(FILE)) {
+            return Map.of();
+        }
+        try {
+            return parse(Files.readString(FILE, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to read page weight baseline " + FILE.toAbsolutePath() + ": " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static Map<String, Baseline> parse(String json) {
+        if (json.isBlank()) {
+            return new TreeMap<>();
+        }
+        try {
+            Map<String, Baseline> baseline = GSON.fromJson(json, TYPE.getType());
+            if (baseline == null) {
+                return new TreeMap<>();
+            }
+            // Entries from before profiles were recorded cannot be compared
+            baseline.values().removeIf(page -> page == null || page.profile == null || page.resources == null);
+            return baseline;
+        } catch (JsonParseException e) {
+            System.err.println("Ignoring unreadable page weight baseline: " + e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+}
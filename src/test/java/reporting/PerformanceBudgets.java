@@ -0,0 +1,145 @@
+package reporting;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import config.Settings;
+import instrumentation.PageMetrics;
+import instrumentation.PagePerformance;
+import io.qameta.allure.Allure;
+import network.NetworkCondition;
+import network.NetworkEmulation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Checks the pages a test loaded against per-page budgets (-Dperf.metrics=true).
+ *
+ * Budgets are read from -Dperf.budgets (default src/test/resources/perf-budgets.json):
+ * page name to metric to upper limit, in the units of {@link PagePerformance}, e.g.
+ * {"login": {"largestContentfulPaint": 2500, "cumulativeLayoutShift": 0.1}}. Pages and
+ * metrics without a budget are only reported.
+ *
+ * Under an emulated {@link NetworkCondition} (the one active when the test ends) a page's
+ * budget is looked up as "&lt;page&gt;@&lt;condition&gt;" first, e.g. "login@3g". Without such an entry
+ * only the page's budgets that do not depend on the link apply: the timing metrics of
+ * {@link #TIMING_METRICS} are reported but not checked. Every test gets its captures attached to
+ * its Allure result; a test whose pages went over budget fails after it ran, unless
+ * -Dperf.budgets.enforce=false.
+ *
+ * With -Dperf.network=true each page also gets its request breakdown attached, and a page
+ * over its requests or transferBytes budget is compared with its {@link PageWeightBaseline}.
+ */
+public class PerformanceBudgets {
+
+    private static final Path FILE = Paths.get(
+            Settings.get("perf.budgets", "PERF_BUDGETS", "src/test/resources/perf-budgets.json"));
+    private static final boolean ENFORCE = Settings.getBoolean("perf.budgets.enforce", "PERF_BUDGETS_ENFORCE", true);
+
+    private static final Set<String> NETWORK_METRICS = Set.of("requests", "transferBytes");
+    // Stretched by any emulated link, so their plain budgets only hold without emulation
+    private static final Set<String> TIMING_METRICS = Set.of("ttfb", "domContentLoaded", "load", "firstPaint",
+            "firstContentfulPaint", "largestContentfulPaint");
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<String, Map<String, Double>> BUDGETS = PageMetrics.isEnabled() ? load() : Map.of();
+
+    private PerformanceBudgets() {
+    }
+
+    /**
+     * Attaches a test's page captures and fails it if any of them exceeded its page's budget.
+     */
+    public static void check(List<PagePerformance> captures) {
+        if (captures.isEmpty()) {
+            return;
+        }
+        Allure.addAttachment("Page performance", "application/json", GSON.toJson(captures), ".json");
+
+        NetworkCondition condition = NetworkEmulation.current();
+        List<String> violations = new ArrayList<>();
+        for (PagePerformance capture : captures) {
+            Map<String, Double> budget = budget(capture.getPage(), condition);
+            boolean overNetworkBudget = false;
+            for (Map.Entry<String, Double> limit : budget.entrySet()) {
+                Double value = capture.getMetrics().get(limit.getKey());
+                if (value != null && value > limit.getValue()) {
+                    violations.add(String.format(Locale.ROOT, "%s %s: %.2f > budget %.2f",
+                            capture.getPage(), limit.getKey(), value, limit.getValue()));
+                    overNetworkBudget |= NETWORK_METRICS.contains(limit.getKey());
+                }
+            }
+            if (capture.getMetrics().containsKey("requests")) {
+                attachNetwork(capture, overNetworkBudget);
+            }
+        }
+        if (violations.isEmpty()) {
+            return;
+        }
+        Allure.addAttachment("Performance budget violations", "text/plain", String.join("\n", violations), ".txt");
+        if (ENFORCE) {
+            throw new AssertionError("Performance budget exceeded: " + String.join("; ", violations));
+        }
+    }
+
+    /**
+     * The page's budget under the condition: its own entry, or the plain one without the
+     * timing metrics.
+     */
+    private static Map<String, Double> budget(String page, NetworkCondition condition) {
+        Map<String, Double> budget = BUDGETS.getOrDefault(page, Map.of());
+        if (condition == NetworkCondition.NONE) {
+            return budget;
+        }
+        Map<String, Double> conditionBudget = BUDGETS.get(page + "@" + condition.conditionName());
+        if (conditionBudget != null) {
+            return conditionBudget;
+        }
+        Map<String, Double> linkIndependent = new TreeMap<>(budget);
+        linkIndependent.keySet().removeAll(TIMING_METRICS);
+        return linkIndependent;
+    }
+
+    /**
+     * Attaches the page's request breakdown; over a network budget also the diff against
+     * its baseline, otherwise the capture becomes the new baseline.
+     */
+    private static void attachNetwork(PagePerformance capture, boolean overBudget) {
+        Allure.addAttachment("Network: " + capture.getPage(), "text/plain",
+                PageWeightBaseline.breakdown(capture), ".txt");
+        if (!overBudget) {
+            PageWeightBaseline.accept(capture);
+            return;
+        }
+        String diff = PageWeightBaseline.diff(capture)
+                .orElse(capture.getPage() + ": no baseline yet, nothing to compare against\n");
+        Allure.addAttachment("Network diff vs baseline: " + capture.getPage(), "text/plain", diff, ".txt");
+        System.err.print(diff);
+    }
+
+    private static Map<String, Map<String, Double>> load() {
+        if (!Files.exists(FILE)) {
+            System.err.println("No performance budgets at " + FILE.toAbsolutePath() + ", page metrics are only reported");
+            return Map.of();
+        }
+        try {
+            Map<String, Map<String, Double>> budgets = GSON.fromJson(Files.readString(FILE, StandardCharsets.UTF_8),
+                    new TypeToken<Map<String, Map<String, Double>>>() {
+                    }.getType());
+            return budgets != null ? budgets : Map.of();
+        } catch (IOException | JsonParseException e) {
+            throw new IllegalStateException("Cannot read performance budgets " + FILE.toAbsolutePath(), e);
+        }
+    }
+}
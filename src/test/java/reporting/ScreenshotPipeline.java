@@ -0,0 +1,128 @@
+package reporting;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.ScreenshotType;
+import config.Settings;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.io.ByteArrayInputStream;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Failure screenshots that do not stall the test thread or blow up the heap.
+ *
+ * Chromium encodes the image in the configured format (JPEG by default, viewport only);
+ * the test thread only captures it and registers the attachment with Allure. Writing the
+ * file into the Allure results directory happens on a background writer. At most
+ * -Dscreenshot.queue images are in flight: when the writer is behind, a capture waits
+ * briefly and is then dropped and counted instead of piling up in memory.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener
+ * so pending writes are flushed before the JVM exits.
+ */
+public class ScreenshotPipeline implements LauncherSessionListener {
+
+    private static final ScreenshotType FORMAT = ScreenshotType.valueOf(
+            Settings.get("screenshot.format", "SCREENSHOT_FORMAT", "jpeg").toUpperCase(Locale.ROOT));
+    private static final int QUALITY = Settings.getInt("screenshot.quality", "SCREENSHOT_QUALITY", 70);
+    private static final boolean FULL_PAGE = Settings.getBoolean("screenshot.fullPage", "SCREENSHOT_FULL_PAGE", false);
+    private static final int MAX_BYTES = Settings.getInt("screenshot.maxBytes", "SCREENSHOT_MAX_BYTES", 1024 * 1024);
+    private static final int QUEUE_SIZE = Settings.getInt("screenshot.queue", "SCREENSHOT_QUEUE", 8);
+    private static final long ENQUEUE_WAIT_MS = 200;
+
+    /**
+     * Quality used for the one retry when the first capture is over the size limit.
+     */
+    private static final int FALLBACK_QUALITY = 40;
+
+    private static final Semaphore SLOTS = new Semaphore(QUEUE_SIZE);
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Captures the page and attaches it to the current Allure test. Never throws.
+     */
+    public static void capture(Page page, String name) {
+        try {
+            if (!SLOTS.tryAcquire(ENQUEUE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                DROPPED.increment();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            ScreenshotType type = FORMAT;
+            byte[] image = page.screenshot(options(type, QUALITY));
+            if (image.length > MAX_BYTES) {
+                type = ScreenshotType.JPEG;
+                image = page.screenshot(options(type, FALLBACK_QUALITY).setFullPage(false));
+            }
+            if (image.length > MAX_BYTES) {
+                DROPPED.increment();
+                SLOTS.release();
+                return;
+            }
+
+            AllureLifecycle lifecycle = Allure.getLifecycle();
+            String extension = type == ScreenshotType.PNG ? ".png" : ".jpg";
+            String source = lifecycle.prepareAttachment(name, "image/" + type.name().toLowerCase(Locale.ROOT), extension);
+            byte[] bytes = image;
+            WRITER.execute(() -> {
+                try {
+                    lifecycle.writeAttachment(source, new ByteArrayInputStream(bytes));
+                } finally {
+                    SLOTS.release();
+                }
+            });
+        } catch (Exception e) {
+            SLOTS.release();
+            // If the page was closed by the test, just skip screenshot.
+            System.err.println("Failed to capture screenshot: " + e.getMessage());
+        }
+    }
+
+    public static long dropped() {
+        return DROPPED.sum();
+    }
+
+    private static Page.ScreenshotOptions options(ScreenshotType type, int quality) {
+        Page.ScreenshotOptions options = new Page.ScreenshotOptions()
+                .setType(type)
+                .setFullPage(FULL_PAGE);
+        if (type == ScreenshotType.JPEG) {
+            options.setQuality(quality);
+        }
+        return options;
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        WRITER.shutdown();
+        try {
+            if (!WRITER.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("Screenshot writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped() > 0) {
+            System.err.println("⚠️ " + dropped() + " failure screenshot(s) were dropped (writer queue full or image over "
+                    + MAX_BYTES + " bytes)");
+        }
+    }
+}
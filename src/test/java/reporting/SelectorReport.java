@@ -0,0 +1,163 @@
+package reporting;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import config.Settings;
+import instrumentation.LatencyHistogram;
+import instrumentation.SelectorProfiler;
+import instrumentation.SelectorStats;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ranks the selectors recorded by {@link SelectorProfiler} by the total time tests spent
+ * waiting for them to resolve, and flags the ones worth a look:
+ * <ul>
+ *   <li>SLOW - median resolution above -Dselector.slow.ms (default 200)</li>
+ *   <li>RETRIES - more than half of the lookups needed at least one retry</li>
+ *   <li>EXPENSIVE - median single query above -Dselector.query.slow.ms (default 20), i.e. the selector itself is costly</li>
+ *   <li>TIMEOUTS - the selector did not match within the profiling timeout at least once</li>
+ * </ul>
+ * The ranking is printed when the session ends and written to -Dselector.report
+ * (default target/selector-profile.json). The reports of several shards can be combined
+ * with {@link #merge(List, Path)}.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener.
+ */
+public class SelectorReport implements LauncherSessionListener {
+
+    private static final Path REPORT_FILE = Paths.get(
+            Settings.get("selector.report", "SELECTOR_REPORT", "target/selector-profile.json"));
+    private static final double SLOW_MS = Settings.getLong("selector.slow.ms", "SELECTOR_SLOW_MS", 200);
+    private static final double QUERY_SLOW_MS = Settings.getLong("selector.query.slow.ms", "SELECTOR_QUERY_SLOW_MS", 20);
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (!SelectorProfiler.isEnabled()) {
+            return;
+        }
+        write(SelectorProfiler.stats(), REPORT_FILE);
+    }
+
+    /**
+     * Adds up the selector profiles of several runs (e.g. one file per shard), ranks them
+     * again and writes one file. Missing inputs are skipped.
+     */
+    public static void merge(List<Path> inputs, Path output) throws IOException {
+        Map<String, SelectorStats> merged = new LinkedHashMap<>();
+        for (Path input : inputs) {
+            if (!Files.exists(input)) {
+                continue;
+            }
+            JsonObject report = JsonParser.parseString(Files.readString(input)).getAsJsonObject();
+            for (JsonElement element : report.getAsJsonArray("selectors")) {
+                JsonObject row = element.getAsJsonObject();
+                SelectorStats stats = SelectorStats.of(
+                        StepTimingReport.histogramOf(row.getAsJsonObject("resolution")),
+                        StepTimingReport.histogramOf(row.getAsJsonObject("query")),
+                        row.get("retries").getAsLong(), row.get("retriedLookups").getAsLong(),
+                        row.get("timeouts").getAsLong());
+                merged.merge(row.get("selector").getAsString(), stats, (a, b) -> SelectorStats.of(
+                        sum(a.resolution(), b.resolution()), sum(a.query(), b.query()),
+                        a.retries() + b.retries(), a.retriedLookups() + b.retriedLookups(),
+                        a.timeouts() + b.timeouts()));
+            }
+        }
+        write(merged, output);
+    }
+
+    private static LatencyHistogram sum(LatencyHistogram a, LatencyHistogram b) {
+        LatencyHistogram sum = new LatencyHistogram();
+        sum.add(a);
+        sum.add(b);
+        return sum;
+    }
+
+    private static void write(Map<String, SelectorStats> profile, Path file) {
+        List<Map.Entry<String, SelectorStats>> ranked = new ArrayList<>(profile.entrySet());
+        if (ranked.isEmpty()) {
+            return;
+        }
+        ranked.sort(Comparator.comparingDouble(
+                (Map.Entry<String, SelectorStats> entry) -> entry.getValue().totalResolutionMillis()).reversed());
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%nSelector profile (ranked by total resolution time):%n%4s %10s %7s %9s %9s %8s %9s  %-28s %s%n",
+                "#", "total ms", "lookups", "p50 ms", "p95 ms", "retry %", "query ms", "flags", "selector"));
+        int rank = 0;
+        for (Map.Entry<String, SelectorStats> entry : ranked) {
+            SelectorStats stats = entry.getValue();
+            List<String> flags = flags(stats);
+            rank++;
+            table.append(String.format(Locale.ROOT, "%4d %10.1f %7d %9.1f %9.1f %8.1f %9.1f  %-28s %s%n",
+                    rank, stats.totalResolutionMillis(), stats.lookups(),
+                    stats.resolution().percentileMillis(50), stats.resolution().percentileMillis(95),
+                    100 * retryShare(stats), stats.query().percentileMillis(50),
+                    String.join(",", flags), entry.getKey()));
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("rank", rank);
+            row.put("selector", entry.getKey());
+            row.put("flags", flags);
+            row.put("totalResolutionMs", round(stats.totalResolutionMillis()));
+            row.put("lookups", stats.lookups());
+            row.put("retries", stats.retries());
+            row.put("retriedLookups", stats.retriedLookups());
+            row.put("timeouts", stats.timeouts());
+            row.put("resolution", StepTimingReport.summary(stats.resolution()));
+            row.put("query", StepTimingReport.summary(stats.query()));
+            rows.add(row);
+        }
+        System.out.print(table);
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file,
+                    new GsonBuilder().setPrettyPrinting().create().toJson(Map.of("selectors", rows)),
+                    StandardCharsets.UTF_8);
+            System.out.println("Selector profile written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Failed to write selector profile: " + e.getMessage());
+        }
+    }
+
+    private static List<String> flags(SelectorStats stats) {
+        List<String> flags = new ArrayList<>();
+        if (stats.lookups() > 0 && stats.resolution().percentileMillis(50) > SLOW_MS) {
+            flags.add("SLOW");
+        }
+        if (retryShare(stats) > 0.5) {
+            flags.add("RETRIES");
+        }
+        if (stats.query().count() > 0 && stats.query().percentileMillis(50) > QUERY_SLOW_MS) {
+            flags.add("EXPENSIVE");
+        }
+        if (stats.timeouts() > 0) {
+            flags.add("TIMEOUTS");
+        }
+        return flags;
+    }
+
+    private static double retryShare(SelectorStats stats) {
+        return stats.lookups() == 0 ? 0 : (double) stats.retriedLookups() / stats.lookups();
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 10) / 10.0;
+    }
+}
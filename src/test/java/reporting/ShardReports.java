@@ -0,0 +1,45 @@
+package reporting;
+
+import network.NetworkEmulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the run-wide reports every shard of run-shards.sh wrote into its own directory
+ * (step latencies, selector profile, network condition latencies) into one of each, the way
+ * the script copies the shards' Allure results together.
+ *
+ * Usage: ShardReports &lt;shards dir&gt; &lt;output dir&gt; &lt;allure results dir&gt;
+ */
+public class ShardReports {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: ShardReports <shards dir> <output dir> <allure results dir>");
+            System.exit(2);
+        }
+        Path shards = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        Path allureResults = Paths.get(args[2]);
+
+        StepTimingReport.merge(inShards(shards, "step-latencies.json"), output.resolve("step-latencies.json"));
+        SelectorReport.merge(inShards(shards, "selector-profile.json"), output.resolve("selector-profile.json"));
+        NetworkEmulation.merge(inShards(shards, "network-conditions.json"),
+                output.resolve("network-conditions.json"), allureResults);
+    }
+
+    private static List<Path> inShards(Path shards, String report) throws IOException {
+        try (Stream<Path> directories = Files.list(shards)) {
+            return directories.filter(Files::isDirectory)
+                    .sorted()
+                    .map(directory -> directory.resolve(report))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package reporting;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import config.Settings;
+import instrumentation.LatencyHistogram;
+import instrumentation.LocatorActions;
+import instrumentation.StepMetrics;
+import instrumentation.StepTiming;
+import io.qameta.allure.Allure;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Publishes the numbers collected by {@link StepMetrics}: each test's step breakdown
+ * as an Allure attachment, and the run-wide per-step percentiles as JSON
+ * (-Dstep.metrics.file, default target/step-latencies.json) when the session ends.
+ * Every summary carries its histogram, so the files of several shards can be combined
+ * with {@link #merge(List, Path)}.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener.
+ */
+public class StepTimingReport implements LauncherSessionListener {
+
+    private static final Path REPORT_FILE = Paths.get(
+            Settings.get("step.metrics.file", "STEP_METRICS_FILE", "target/step-latencies.json"));
+
+    /**
+     * Attaches a test's step breakdown (indented by nesting) and the number of locator actions
+     * its page objects performed to its Allure result.
+     */
+    public static void attach(List<StepTiming> timings, long locatorActions) {
+        if (timings.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder();
+        double total = 0;
+        for (StepTiming timing : timings) {
+            if (timing.getDepth() == 0) {
+                total += timing.getMillis();
+            }
+            table.append(String.format(Locale.ROOT, "%9.1f ms  %s%s%s%n",
+                    timing.getMillis(),
+                    "  ".repeat(timing.getDepth()),
+                    timing.getStep(),
+                    timing.isFailed() ? "  [failed]" : ""));
+        }
+        table.append(String.format(Locale.ROOT, "%9.1f ms  total in page objects%n", total));
+        table.append(String.format(Locale.ROOT, "%9d     locator actions%n", locatorActions));
+        Allure.addAttachment("Step timings", "text/plain", table.toString(), ".txt");
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        Map<String, LatencyHistogram> histograms = StepMetrics.histograms();
+        if (histograms.isEmpty()) {
+            return;
+        }
+        write(histograms, LocatorActions.total(), REPORT_FILE);
+    }
+
+    /**
+     * Adds up the step latencies of several runs (e.g. one file per shard) into one file.
+     * Missing inputs are skipped.
+     */
+    public static void merge(List<Path> inputs, Path output) throws IOException {
+        Map<String, LatencyHistogram> histograms = new TreeMap<>();
+        long locatorActions = 0;
+        for (Path input : inputs) {
+            if (!Files.exists(input)) {
+                continue;
+            }
+            JsonObject report = JsonParser.parseString(Files.readString(input)).getAsJsonObject();
+            locatorActions += report.get("locatorActions").getAsLong();
+            for (Map.Entry<String, JsonElement> step : report.getAsJsonObject("steps").entrySet()) {
+                histograms.computeIfAbsent(step.getKey(), key -> new LatencyHistogram())
+                        .add(histogramOf(step.getValue().getAsJsonObject()));
+            }
+        }
+        if (!histograms.isEmpty()) {
+            write(histograms, locatorActions, output);
+        }
+    }
+
+    private static void write(Map<String, LatencyHistogram> histograms, long locatorActions, Path file) {
+        Map<String, Map<String, Object>> steps = new LinkedHashMap<>();
+        histograms.forEach((step, histogram) -> steps.put(step, summary(histogram)));
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file,
+                    new GsonBuilder().setPrettyPrinting().create().toJson(
+                            Map.of("steps", steps, "locatorActions", locatorActions)),
+                    StandardCharsets.UTF_8);
+            System.out.println("Step latencies written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Failed to write step latencies: " + e.getMessage());
+        }
+    }
+
+    public static Map<String, Object> summary(LatencyHistogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.count());
+        summary.put("minMs", round(histogram.minMillis()));
+        summary.put("meanMs", round(histogram.meanMillis()));
+        summary.put("p50Ms", round(histogram.percentileMillis(50)));
+        summary.put("p95Ms", round(histogram.percentileMillis(95)));
+        summary.put("p99Ms", round(histogram.percentileMillis(99)));
+        summary.put("maxMs", round(histogram.maxMillis()));
+        summary.put("histogram", histogram.state());
+        return summary;
+    }
+
+    /**
+     * The histogram of a {@link #summary(LatencyHistogram)} read back from JSON.
+     */
+    public static LatencyHistogram histogramOf(JsonObject summary) {
+        return LatencyHistogram.fromState(new Gson().fromJson(summary.get("histogram"),
+                new TypeToken<Map<String, Object>>() { }.getType()));
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 10) / 10.0;
+    }
+}
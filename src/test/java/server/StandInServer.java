@@ -0,0 +1,353 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-JVM stand-in for the interviewcards app, serving just what the page objects touch:
+ * the /login form, the /en main page with the "+ New Card" modal, and the auth API
+ * (login with lockout, logout, register, delete) plus card creation.
+ *
+ * Markup and messages mirror the real app so LoginPage, MainPage and ModalComponent
+ * work unchanged. All state is in memory and lives as long as the server.
+ */
+public class StandInServer implements AutoCloseable {
+
+    public static final int MAX_FAILED_ATTEMPTS = Config.LOCKOUT_ATTEMPTS;
+
+    static final String SESSION_COOKIE = "session";
+
+    private static final String INVALID_CREDENTIALS = "Invalid username or password. Please try again.";
+    private static final String TOO_MANY_ATTEMPTS = "Too many failed attempts. Please try again later.";
+    private static final String USERNAME_REQUIRED = "Username or email is required";
+    private static final String PASSWORD_REQUIRED = "Password is required";
+
+    private static final Gson GSON = new Gson();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String loginHtml = resource("standin/login.html");
+    private final String mainHtml = resource("standin/main.html");
+
+    private final ConcurrentMap<String, User> usersByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> failedAttempts = new ConcurrentHashMap<>();
+
+    public StandInServer(int port) {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start stand-in server on port " + port, e);
+        }
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+
+        server.createContext("/", this::root);
+        server.createContext("/login", exchange -> sendHtml(exchange, loginHtml));
+        server.createContext("/en", this::mainPage);
+        server.createContext("/api/auth/login", this::login);
+        server.createContext("/api/auth/logout", this::logout);
+        server.createContext("/api/auth/register", this::register);
+        server.createContext("/api/auth/delete", this::delete);
+        server.createContext("/api/cards", this::createCard);
+    }
+
+    /**
+     * A stand-in server for a local BASE_URL, on its port or, when it has none
+     * (e.g. http://localhost), on the scheme's default port.
+     */
+    public static StandInServer forBaseUrl(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        if (uri.getPort() != -1) {
+            return new StandInServer(uri.getPort());
+        }
+        int defaultPort;
+        if ("http".equalsIgnoreCase(uri.getScheme())) {
+            defaultPort = 80;
+        } else if ("https".equalsIgnoreCase(uri.getScheme())) {
+            defaultPort = 443;
+        } else {
+            throw new IllegalArgumentException("BASE_URL " + baseUrl + " has no port and no http(s) scheme to default it from");
+        }
+        try {
+            return new StandInServer(defaultPort);
+        } catch (UncheckedIOException e) {
+            throw new UncheckedIOException("BASE_URL " + baseUrl + " has no port, so the stand-in server needs the default port "
+                    + defaultPort + "; give BASE_URL an explicit port, e.g. http://localhost:8089", e.getCause());
+        }
+    }
+
+    public StandInServer start() {
+        server.start();
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Adds a user directly, e.g. the TEST_USERNAME account the suite logs in with.
+     */
+    public void addUser(String username, String email, String password) {
+        usersByName.put(key(username), new User(username, email, password));
+    }
+
+    private void root(HttpExchange exchange) throws IOException {
+        if (!"/".equals(exchange.getRequestURI().getPath())) {
+            send(exchange, 404, "text/plain", "Not found");
+            return;
+        }
+        redirect(exchange, "/en");
+    }
+
+    private void mainPage(HttpExchange exchange) throws IOException {
+        if (sessionUser(exchange).isEmpty()) {
+            redirect(exchange, "/login");
+            return;
+        }
+        sendHtml(exchange, mainHtml);
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        JsonObject body = readJson(exchange);
+        String login = string(body, "username").trim();
+        // Never trimmed: the service compares passwords exactly
+        String password = string(body, "password");
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (login.isEmpty()) {
+            errors.put("username", USERNAME_REQUIRED);
+        }
+        if (password.isEmpty()) {
+            errors.put("password", PASSWORD_REQUIRED);
+        }
+        if (!errors.isEmpty()) {
+            sendJson(exchange, 400, Map.of("errors", errors));
+            return;
+        }
+
+        AtomicInteger failures = failedAttempts.computeIfAbsent(key(login), k -> new AtomicInteger());
+        if (failures.get() >= MAX_FAILED_ATTEMPTS) {
+            sendJson(exchange, 429, Map.of("errors", Map.of("login", TOO_MANY_ATTEMPTS)));
+            return;
+        }
+
+        Optional<User> user = findUser(login).filter(u -> u.password.equals(password));
+        if (user.isEmpty()) {
+            failures.incrementAndGet();
+            sendJson(exchange, 401, Map.of("errors", Map.of("login", INVALID_CREDENTIALS)));
+            return;
+        }
+
+        failures.set(0);
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, user.get().username);
+        exchange.getResponseHeaders().add("Set-Cookie",
+                SESSION_COOKIE + "=" + token + "; Path=/; Max-Age=86400; HttpOnly; SameSite=Lax");
+        sendJson(exchange, 200, Map.of("username", user.get().username));
+    }
+
+    private void logout(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        sessionToken(exchange).ifPresent(sessions::remove);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0");
+        sendJson(exchange, 200, Map.of());
+    }
+
+    private void register(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        JsonObject body = readJson(exchange);
+        String username = string(body, "username").trim();
+        String email = string(body, "email").trim();
+        String password = string(body, "password");
+        if (username.isEmpty() || email.isEmpty() || password.isEmpty()) {
+            sendJson(exchange, 400, Map.of("error", "Username, email and password are required"));
+            return;
+        }
+        if (usersByName.putIfAbsent(key(username), new User(username, email, password)) != null) {
+            sendJson(exchange, 400, Map.of("error", "Username is already taken"));
+            return;
+        }
+        sendJson(exchange, 201, Map.of("username", username, "email", email));
+    }
+
+    private void delete(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "DELETE")) {
+            return;
+        }
+        String username = string(readJson(exchange), "username").trim();
+        if (usersByName.remove(key(username)) == null) {
+            sendJson(exchange, 404, Map.of("error", "User not found"));
+            return;
+        }
+        failedAttempts.remove(key(username));
+        sessions.values().removeIf(username::equalsIgnoreCase);
+        sendJson(exchange, 200, Map.of("deleted", username));
+    }
+
+    private void createCard(HttpExchange exchange) throws IOException {
+        if (!requireMethod(exchange, "POST")) {
+            return;
+        }
+        Optional<String> user = sessionUser(exchange);
+        if (user.isEmpty()) {
+            sendJson(exchange, 401, Map.of("error", "Not authenticated"));
+            return;
+        }
+        JsonObject body = readJson(exchange);
+        if (string(body, "question").isBlank() || string(body, "answer").isBlank()) {
+            sendJson(exchange, 400, Map.of("error", "Question and answer are required"));
+            return;
+        }
+        User owner = usersByName.get(key(user.get()));
+        if (owner != null) {
+            owner.cards.incrementAndGet();
+        }
+        sendJson(exchange, 201, Map.of("question", string(body, "question")));
+    }
+
+    private Optional<User> findUser(String login) {
+        User byName = usersByName.get(key(login));
+        if (byName != null) {
+            return Optional.of(byName);
+        }
+        return usersByName.values().stream()
+                .filter(user -> user.email != null && user.email.equalsIgnoreCase(login))
+                .findFirst();
+    }
+
+    private Optional<String> sessionUser(HttpExchange exchange) {
+        return sessionToken(exchange).map(sessions::get);
+    }
+
+    private static Optional<String> sessionToken(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", List.of())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && SESSION_COOKIE.equals(pair[0])) {
+                    return Optional.of(pair[1]);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+        if (method.equalsIgnoreCase(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().add("Allow", method);
+        sendJson(exchange, 405, Map.of("error", "Method not allowed"));
+        return false;
+    }
+
+    private static JsonObject readJson(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            String text = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            if (text.isBlank()) {
+                return new JsonObject();
+            }
+            return JsonParser.parseString(text).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            return new JsonObject();
+        }
+    }
+
+    private static String string(JsonObject json, String member) {
+        return json.has(member) && json.get(member).isJsonPrimitive() ? json.get(member).getAsString() : "";
+    }
+
+    private static String key(String login) {
+        return login.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private static void sendHtml(HttpExchange exchange, String html) throws IOException {
+        send(exchange, 200, "text/html; charset=utf-8", html);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, "application/json", GSON.toJson(body));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String resource(String name) {
+        try (InputStream in = StandInServer.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing stand-in resource " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static final class User {
+
+        private final String username;
+        private final String email;
+        private final String password;
+        private final AtomicInteger cards = new AtomicInteger();
+
+        private User(String username, String email, String password) {
+            this.username = username;
+            this.email = email;
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package server;
+
+import config.Config;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Starts the {@link StandInServer} for the launcher session when BASE_URL is unset
+ * or points at localhost, so the suite runs hermetically on the loopback interface.
+ * The account from TEST_USERNAME / TEST_EMAIL / TEST_PASSWORD is registered up front.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener.
+ */
+public class StandInServerSession implements LauncherSessionListener {
+
+    private StandInServer server;
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        if (!Config.LOCAL_BASE_URL) {
+            return;
+        }
+        server = StandInServer.forBaseUrl(Config.BASE_URL).start();
+        server.addUser(Config.USERNAME, Config.EMAIL, Config.PASSWORD);
+        System.out.println("Stand-in server is listening on " + Config.BASE_URL);
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+}
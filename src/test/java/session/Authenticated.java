@@ -0,0 +1,16 @@
+package session;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test (or a whole test class) that needs a logged-in user.
+ * BaseTest then starts the test from a cached session on the main page
+ * instead of going through the login form.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Authenticated {
+}
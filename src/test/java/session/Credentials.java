@@ -0,0 +1,48 @@
+package session;
+
+import java.util.Objects;
+
+/**
+ * Login/password pair used as the session cache key.
+ */
+public final class Credentials {
+
+    private final String login;
+    private final String password;
+
+    public Credentials(String login, String password) {
+        this.login = login;
+        this.password = password;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Credentials)) {
+            return false;
+        }
+        Credentials that = (Credentials) o;
+        return Objects.equals(login, that.login) && Objects.equals(password, that.password);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(login, password);
+    }
+
+    @Override
+    public String toString() {
+        // Never print the password into logs or reports
+        return "Credentials{" + login + "}";
+    }
+}
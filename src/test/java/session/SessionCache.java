@@ -0,0 +1,168 @@
+package session;
+
+import browser.ContextFactory;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.Cookie;
+import com.microsoft.playwright.options.SameSiteAttribute;
+import config.Settings;
+import pages.LoginPage;
+import pages.enums.LoginSubmitType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the authenticated storage state (cookies and localStorage) per credential set.
+ * The UI login runs once; every later context is started from the saved state.
+ *
+ * A cached state expires after the configured TTL or when its earliest cookie expires,
+ * whichever comes first. Callers that find the state rejected by the server
+ * report it through {@link #invalidate(Credentials, String)} and fetch a fresh one.
+ */
+public class SessionCache {
+
+    /**
+     * Maximum age of a cached session, overridable with -Dsession.ttl.minutes.
+     */
+    private static final Duration TTL = Duration.ofMinutes(
+            Settings.getLong("session.ttl.minutes", "SESSION_TTL_MINUTES", 30));
+
+    /**
+     * Refresh a bit before the cookie actually expires so a test never starts on the edge.
+     */
+    private static final Duration EXPIRY_SKEW = Duration.ofSeconds(30);
+
+    private static final ConcurrentMap<Credentials, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private SessionCache() {
+    }
+
+    /**
+     * Returns a valid storage state for the credentials, logging in through the UI
+     * with the given browser if nothing usable is cached.
+     */
+    public static String storageState(Browser browser, Credentials credentials) {
+        Entry entry = ENTRIES.computeIfAbsent(credentials, key -> new Entry());
+        synchronized (entry) {
+            if (entry.storageState == null || Instant.now().isAfter(entry.expiresAt)) {
+                entry.refresh(browser, credentials);
+            }
+            return entry.storageState;
+        }
+    }
+
+    /**
+     * Marks an origin whose localStorage was already restored in this context, so later
+     * navigations leave what the app wrote since (e.g. a logout or a refreshed token) alone.
+     */
+    private static final String RESTORED_MARKER = "__sessionCacheRestored";
+
+    /**
+     * Loads a saved storage state into an already created context (e.g. a test's fresh one):
+     * cookies go in directly, localStorage is restored by an init script per origin
+     * before any page script runs, once per context and only for keys that are absent.
+     */
+    public static void applyTo(BrowserContext context, String storageState) {
+        JsonObject state = JsonParser.parseString(storageState).getAsJsonObject();
+
+        List<Cookie> cookies = new ArrayList<>();
+        for (JsonElement element : state.getAsJsonArray("cookies")) {
+            cookies.add(toCookie(element.getAsJsonObject()));
+        }
+        if (!cookies.isEmpty()) {
+            context.addCookies(cookies);
+        }
+
+        if (state.has("origins")) {
+            for (JsonElement origin : state.getAsJsonArray("origins")) {
+                context.addInitScript(localStorageScript(origin.getAsJsonObject()));
+            }
+        }
+    }
+
+    private static Cookie toCookie(JsonObject json) {
+        Cookie cookie = new Cookie(json.get("name").getAsString(), json.get("value").getAsString())
+                .setDomain(json.get("domain").getAsString())
+                .setPath(json.get("path").getAsString())
+                .setExpires(json.get("expires").getAsDouble())
+                .setHttpOnly(json.get("httpOnly").getAsBoolean())
+                .setSecure(json.get("secure").getAsBoolean());
+        if (json.has("sameSite")) {
+            cookie.setSameSite(SameSiteAttribute.valueOf(json.get("sameSite").getAsString().toUpperCase(Locale.ROOT)));
+        }
+        return cookie;
+    }
+
+    private static String localStorageScript(JsonObject origin) {
+        // JSON literals are valid JS, so the values are embedded without extra escaping
+        return "(() => {"
+                + " if (window.location.origin !== " + origin.get("origin") + ") return;"
+                + " const storage = window.localStorage;"
+                + " if (storage.getItem('" + RESTORED_MARKER + "') !== null) return;"
+                + " for (const item of " + origin.get("localStorage") + ")"
+                + "   if (storage.getItem(item.name) === null) storage.setItem(item.name, item.value);"
+                + " storage.setItem('" + RESTORED_MARKER + "', '1');"
+                + "})();";
+    }
+
+    /**
+     * Drops the cached state if it is still the one the caller saw rejected.
+     * A state refreshed meanwhile by another worker is kept.
+     */
+    public static void invalidate(Credentials credentials, String rejectedState) {
+        Entry entry = ENTRIES.get(credentials);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (rejectedState.equals(entry.storageState)) {
+                entry.storageState = null;
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private String storageState;
+        private Instant expiresAt = Instant.MIN;
+
+        /**
+         * Logs in through a context set up like every test's, so the login sees the same
+         * request filter and timeouts.
+         */
+        private void refresh(Browser browser, Credentials credentials) {
+            try (BrowserContext context = ContextFactory.newContext(browser)) {
+                Page page = context.pages().get(0);
+                new LoginPage(page).login(credentials.getLogin(), credentials.getPassword(), LoginSubmitType.CLICK);
+
+                storageState = context.storageState();
+                expiresAt = expiryOf(context.cookies());
+            }
+        }
+
+        private static Instant expiryOf(List<Cookie> cookies) {
+            Instant expiry = Instant.now().plus(TTL);
+            for (Cookie cookie : cookies) {
+                // Session cookies report -1 and live as long as the context
+                if (cookie.expires == null || cookie.expires <= 0) {
+                    continue;
+                }
+                Instant cookieExpiry = Instant.ofEpochMilli((long) (cookie.expires * 1000)).minus(EXPIRY_SKEW);
+                if (cookieExpiry.isBefore(expiry)) {
+                    expiry = cookieExpiry;
+                }
+            }
+            return expiry;
+        }
+    }
+}
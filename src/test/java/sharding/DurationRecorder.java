@@ -0,0 +1,66 @@
+package sharding;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures how long every shardable test took and merges the numbers into
+ * {@link TestDurations} when the run ends.
+ *
+ * A shardable test is a leaf of the discovered plan: a test method, or a whole
+ * parameterized / templated method, whose invocations only appear during execution.
+ * Tests that failed or were aborted are not recorded; their time says little about
+ * the next run.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.TestExecutionListener.
+ */
+public class DurationRecorder implements TestExecutionListener {
+
+    private final Set<String> shardable = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    private final Map<String, Double> measured = new ConcurrentHashMap<>();
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if (ShardFilter.isEnabled()) {
+            System.out.println(ShardFilter.lastPlanSummary());
+        }
+        for (TestIdentifier root : testPlan.getRoots()) {
+            for (TestIdentifier identifier : testPlan.getDescendants(root)) {
+                if (testPlan.getChildren(identifier).isEmpty()) {
+                    shardable.add(identifier.getUniqueId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (shardable.contains(testIdentifier.getUniqueId())) {
+            startedAt.put(testIdentifier.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Long start = startedAt.remove(testIdentifier.getUniqueId());
+        if (start != null && testExecutionResult.getStatus() == TestExecutionResult.Status.SUCCESSFUL) {
+            measured.put(testIdentifier.getUniqueId(), (System.nanoTime() - start) / 1_000_000.0);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        try {
+            TestDurations.merge(measured);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to record test durations: " + e.getMessage());
+        }
+    }
+}
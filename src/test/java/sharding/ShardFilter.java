@@ -0,0 +1,176 @@
+package sharding;
+
+import config.Settings;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Keeps only the tests of one shard (-Dshard.index, 1-based, of -Dshard.total).
+ *
+ * Tests are split by their recorded durations ({@link TestDurations}) so every shard
+ * gets about the same amount of work: the longest test goes to the currently lightest
+ * shard, and so on (longest processing time first). With -Dshard.granularity=method
+ * (the default) the unit is a test method, a parameterized method counting as one; with
+ * class, whole test classes stay together. Tests without history are weighted with the
+ * median of the known ones.
+ *
+ * Every shard computes the same plan from the same durations file, so shards never
+ * overlap or miss a test as long as they read identical durations.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.PostDiscoveryFilter.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    private static final int TOTAL = Settings.getInt("shard.total", "SHARD_TOTAL", 1);
+    private static final int INDEX = Settings.getInt("shard.index", "SHARD_INDEX", 1);
+    private static final boolean BY_CLASS =
+            "class".equalsIgnoreCase(Settings.get("shard.granularity", "SHARD_GRANULARITY", "method"));
+
+    private static final double DEFAULT_MILLIS = 1_000;
+
+    /**
+     * Surefire's class scan runs a discovery per candidate class to see whether it has tests.
+     * Sharding must stay out of that: in a single-class view every test of a class may land
+     * in another shard, and the class would be dropped before the real run is planned.
+     */
+    private static final String SUREFIRE_SCANNER = "org.apache.maven.surefire.junitplatform.TestPlanScannerFilter";
+
+    /**
+     * Shard of every unit by unique ID, computed once per discovered engine tree
+     * (by identity: every engine root has the same unique ID).
+     */
+    private final Map<TestDescriptor, Map<String, Integer>> plans = new IdentityHashMap<>();
+
+    /**
+     * Summary of the latest plan, printed by {@link DurationRecorder} once execution starts.
+     */
+    private static volatile String lastPlanSummary = "";
+
+    public ShardFilter() {
+        if (TOTAL > 1 && (INDEX < 1 || INDEX > TOTAL)) {
+            throw new IllegalArgumentException("shard.index must be between 1 and " + TOTAL + ", got " + INDEX);
+        }
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (TOTAL <= 1) {
+            return FilterResult.included("sharding disabled");
+        }
+        if (isSurefireScan()) {
+            return FilterResult.included("surefire class scan");
+        }
+        TestDescriptor root = descriptor;
+        while (root.getParent().isPresent()) {
+            root = root.getParent().get();
+        }
+        Map<String, Integer> plan = plans.computeIfAbsent(root, ShardFilter::plan);
+        Integer shard = plan.get(unitOf(descriptor).getUniqueId().toString());
+        if (shard == null || shard == INDEX) {
+            return FilterResult.included("shard " + INDEX + "/" + TOTAL);
+        }
+        return FilterResult.excluded("in shard " + shard + "/" + TOTAL);
+    }
+
+    private static Map<String, Integer> plan(TestDescriptor root) {
+        Map<String, Double> history = TestDurations.load();
+        double fallback = median(history);
+
+        // Estimated duration per unit: the sum of its tests (a class is the sum of its methods)
+        Map<String, Double> units = new LinkedHashMap<>();
+        collectLeaves(root, leaf -> units.merge(unitOf(leaf).getUniqueId().toString(),
+                history.getOrDefault(leaf.getUniqueId().toString(), fallback), Double::sum));
+
+        List<Map.Entry<String, Double>> longestFirst = new ArrayList<>(units.entrySet());
+        longestFirst.sort(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        double[] load = new double[TOTAL];
+        int[] count = new int[TOTAL];
+        Map<String, Integer> plan = new HashMap<>();
+        for (Map.Entry<String, Double> unit : longestFirst) {
+            int lightest = 0;
+            for (int shard = 1; shard < TOTAL; shard++) {
+                if (load[shard] < load[lightest]) {
+                    lightest = shard;
+                }
+            }
+            load[lightest] += unit.getValue();
+            count[lightest]++;
+            plan.put(unit.getKey(), lightest + 1);
+        }
+
+        StringBuilder summary = new StringBuilder();
+        for (int shard = 0; shard < TOTAL; shard++) {
+            summary.append(String.format(Locale.ROOT, "%n  shard %d: %d %s, ~%.1f s%s",
+                    shard + 1, count[shard], BY_CLASS ? "classes" : "tests", load[shard] / 1000,
+                    shard + 1 == INDEX ? "  <- this run" : ""));
+        }
+        lastPlanSummary = "Sharding " + units.size() + (BY_CLASS ? " classes" : " tests")
+                + " by " + (history.isEmpty() ? "count (no duration history yet)" : "recorded duration") + ":" + summary;
+        return plan;
+    }
+
+    private static boolean isSurefireScan() {
+        return StackWalker.getInstance().walk(frames ->
+                frames.anyMatch(frame -> SUREFIRE_SCANNER.equals(frame.getClassName())));
+    }
+
+    static boolean isEnabled() {
+        return TOTAL > 1;
+    }
+
+    static String lastPlanSummary() {
+        return lastPlanSummary;
+    }
+
+    /**
+     * The descriptor that is assigned to a shard as a whole for the given leaf.
+     */
+    private static TestDescriptor unitOf(TestDescriptor leaf) {
+        if (!BY_CLASS) {
+            return leaf;
+        }
+        TestDescriptor current = leaf;
+        while (current != null) {
+            if (current.getSource().filter(ClassSource.class::isInstance).isPresent()) {
+                return current;
+            }
+            current = current.getParent().orElse(null);
+        }
+        return leaf;
+    }
+
+    private static void collectLeaves(TestDescriptor descriptor, Consumer<TestDescriptor> leaves) {
+        if (descriptor.getChildren().isEmpty()) {
+            if (descriptor.getParent().isPresent()) {
+                leaves.accept(descriptor);
+            }
+            return;
+        }
+        for (TestDescriptor child : descriptor.getChildren()) {
+            collectLeaves(child, leaves);
+        }
+    }
+
+    private static double median(Map<String, Double> history) {
+        if (history.isEmpty()) {
+            return DEFAULT_MILLIS;
+        }
+        List<Double> values = new ArrayList<>(history.values());
+        values.sort(null);
+        return values.get(values.size() / 2);
+    }
+}
@@ -0,0 +1,104 @@
+package sharding;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import config.Settings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-test durations from previous runs, keyed by JUnit unique ID, in milliseconds.
+ *
+ * Sharding reads them from -Dtest.durations (default .test-durations.json); every run
+ * merges what it measured into -Dtest.durations.record (default the same file) as an
+ * exponentially weighted average, so one slow run does not reshuffle every shard.
+ * Writes hold a file lock because shards running side by side share the file.
+ */
+class TestDurations {
+
+    static final Path SOURCE = Paths.get(Settings.get("test.durations", "TEST_DURATIONS", ".test-durations.json"));
+    static final Path RECORD = Paths.get(Settings.get("test.durations.record", "TEST_DURATIONS_RECORD", SOURCE.toString()));
+
+    /**
+     * Weight of the newest measurement in the stored average.
+     */
+    private static final double NEW_SAMPLE_WEIGHT = 0.5;
+
+    private static final Gson GSON = new Gson();
+    private static final TypeToken<TreeMap<String, Double>> TYPE = new TypeToken<>() {
+    };
+
+    private TestDurations() {
+    }
+
+    /**
+     * Durations to shard by; empty when there is no history yet.
+     */
+    static Map<String, Double> load() {
+        if (!Files.exists(SOURCE)) {
+            return Map.of();
+        }
+        try {
+            return parse(Files.readString(SOURCE, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to read test durations " + SOURCE.toAbsolutePath() + ": " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    static void merge(Map<String, Double> measured) {
+        if (measured.isEmpty()) {
+            return;
+        }
+        try {
+            Path parent = RECORD.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(RECORD,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Map<String, Double> durations = parse(
+                        new String(Channels.newInputStream(channel).readAllBytes(), StandardCharsets.UTF_8));
+                measured.forEach((test, millis) -> durations.merge(test, millis,
+                        (previous, latest) -> round(previous * (1 - NEW_SAMPLE_WEIGHT) + latest * NEW_SAMPLE_WEIGHT)));
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(GSON.toJson(durations).getBytes(StandardCharsets.UTF_8)), 0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot update test durations " + RECORD.toAbsolutePath(), e);
+        }
+    }
+
+    private static Map<String, Double> parse(String json) {
+        if (json.isBlank()) {
+            return new TreeMap<>();
+        }
+        try {
+            Map<String, Double> durations = GSON.fromJson(json, TYPE.getType());
+            return durations != null ? durations : new TreeMap<>();
+        } catch (JsonParseException e) {
+            System.err.println("Ignoring unreadable test durations: " + e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 10) / 10.0;
+    }
+}
@@ -0,0 +1,79 @@
+package soak;
+
+import java.util.Arrays;
+
+/**
+ * One-sided Mann-Whitney U test: are the values of the later sample stochastically greater
+ * than those of the earlier one? Uses the normal approximation with tie and continuity
+ * correction, which is accurate for the sample sizes a soak window collects (8+ per side).
+ */
+final class MannWhitney {
+
+    private MannWhitney() {
+    }
+
+    /**
+     * Probability of seeing the later sample rank at least this high if both samples came
+     * from the same distribution; 1 when either sample is empty.
+     */
+    static double pValueLaterIsGreater(long[] earlier, long[] later) {
+        int n1 = earlier.length;
+        int n2 = later.length;
+        if (n1 == 0 || n2 == 0) {
+            return 1;
+        }
+        int n = n1 + n2;
+        long[][] pooled = new long[n][];
+        for (int i = 0; i < n1; i++) {
+            pooled[i] = new long[]{earlier[i], 0};
+        }
+        for (int i = 0; i < n2; i++) {
+            pooled[n1 + i] = new long[]{later[i], 1};
+        }
+        Arrays.sort(pooled, (a, b) -> Long.compare(a[0], b[0]));
+
+        // Average ranks over ties
+        double laterRankSum = 0;
+        double tieTerm = 0;
+        for (int start = 0; start < n; ) {
+            int end = start;
+            while (end + 1 < n && pooled[end + 1][0] == pooled[start][0]) {
+                end++;
+            }
+            double rank = (start + end) / 2.0 + 1;
+            for (int i = start; i <= end; i++) {
+                if (pooled[i][1] == 1) {
+                    laterRankSum += rank;
+                }
+            }
+            long ties = end - start + 1;
+            tieTerm += ties * ties * ties - ties;
+            start = end + 1;
+        }
+
+        double u = laterRankSum - n2 * (n2 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - tieTerm / (n * (double) (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    private static double normalCdf(double z) {
+        return 0.5 * (1 + erf(z / Math.sqrt(2)));
+    }
+
+    /**
+     * Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7.
+     */
+    private static double erf(double x) {
+        double sign = Math.signum(x);
+        x = Math.abs(x);
+        double t = 1 / (1 + 0.3275911 * x);
+        double y = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t + 0.254829592)
+                * t * Math.exp(-x * x);
+        return sign * y;
+    }
+}
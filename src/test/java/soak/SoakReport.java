@@ -0,0 +1,206 @@
+package soak;
+
+import com.google.gson.GsonBuilder;
+import config.Settings;
+import io.qameta.allure.Allure;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+/**
+ * Turns the windows of a {@link SoakRun} into p99 over time and a drift verdict.
+ *
+ * Drift compares the first and the last -Dsoak.drift.windows complete windows (default 1)
+ * per step with a one-sided Mann-Whitney U test. A step has drifted when the later
+ * latencies are significantly higher (p below -Dsoak.drift.alpha, default 0.01) and the
+ * median rose by at least -Dsoak.drift.minIncrease (default 0.1, i.e. 10%): over hours the
+ * samples are large enough for tiny shifts to be significant, so the size matters too.
+ * Steps with fewer than 8 samples on either side are not judged.
+ *
+ * The p99 series (CSV, one row per window) and the drift table are attached to Allure and
+ * written to -Dsoak.report (default target/soak-report.json), also for a run that was given up.
+ */
+public class SoakReport {
+
+    private static final int DRIFT_WINDOWS = Math.max(1, Settings.getInt("soak.drift.windows", "SOAK_DRIFT_WINDOWS", 1));
+    private static final double ALPHA = Double.parseDouble(Settings.get("soak.drift.alpha", "SOAK_DRIFT_ALPHA", "0.01"));
+    private static final double MIN_INCREASE = Double.parseDouble(
+            Settings.get("soak.drift.minIncrease", "SOAK_DRIFT_MIN_INCREASE", "0.1"));
+    private static final int MIN_SAMPLES = 8;
+    private static final Path REPORT_FILE = Paths.get(Settings.get("soak.report", "SOAK_REPORT", "target/soak-report.json"));
+
+    private final List<SoakWindow> windows;
+    private final int completeWindows;
+    private final Duration windowLength;
+    private final AssertionError gaveUp;
+    private final List<Map<String, Object>> drift = new ArrayList<>();
+    private final List<String> drifted = new ArrayList<>();
+
+    /**
+     * @param gaveUp why the run stopped early, or null if it ran for its whole duration
+     */
+    SoakReport(List<SoakWindow> windows, int completeWindows, Duration windowLength, AssertionError gaveUp) {
+        this.windows = windows;
+        this.completeWindows = completeWindows;
+        this.windowLength = windowLength;
+        this.gaveUp = gaveUp;
+        judgeDrift();
+    }
+
+    /**
+     * Attaches p99 over time and the drift table to Allure, writes the JSON report
+     * and prints the drift table.
+     */
+    public SoakReport publish() {
+        String table = driftTable();
+        System.out.print(table);
+        Allure.addAttachment("Soak p99 over time", "text/csv", p99Csv(), ".csv");
+        Allure.addAttachment("Soak drift", "text/plain", table, ".txt");
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("windowSeconds", windowLength.toSeconds());
+        report.put("completeWindows", completeWindows);
+        if (gaveUp != null) {
+            report.put("gaveUp", gaveUp.getMessage());
+        }
+        List<Map<String, Object>> series = new ArrayList<>();
+        for (SoakWindow window : windows) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("window", window.index);
+            entry.put("sessions", window.sessions);
+            entry.put("failedSessions", window.errors);
+            Map<String, Object> steps = new LinkedHashMap<>();
+            for (String step : window.latencies.keySet()) {
+                Map<String, Object> latency = new LinkedHashMap<>();
+                latency.put("count", window.sorted(step).length);
+                latency.put("p50Ms", round(window.percentileMillis(step, 50)));
+                latency.put("p99Ms", round(window.percentileMillis(step, 99)));
+                steps.put(step, latency);
+            }
+            entry.put("steps", steps);
+            series.add(entry);
+        }
+        report.put("windows", series);
+        report.put("drift", drift);
+        try {
+            Files.createDirectories(REPORT_FILE.toAbsolutePath().getParent());
+            Files.writeString(REPORT_FILE, new GsonBuilder().setPrettyPrinting().create().toJson(report),
+                    StandardCharsets.UTF_8);
+            System.out.println("Soak report written to " + REPORT_FILE.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Failed to write soak report: " + e.getMessage());
+        }
+        return this;
+    }
+
+    /**
+     * Fails if the run was given up or any step drifted.
+     */
+    public void assertNoDrift() {
+        if (gaveUp != null) {
+            throw gaveUp;
+        }
+        if (!drifted.isEmpty()) {
+            throw new AssertionError("Latency drifted between the first and the last windows: " + String.join("; ", drifted));
+        }
+    }
+
+    private void judgeDrift() {
+        if (completeWindows < 2 * DRIFT_WINDOWS) {
+            System.out.println("Soak run too short to judge drift: " + completeWindows + " complete windows, "
+                    + 2 * DRIFT_WINDOWS + " needed");
+            return;
+        }
+        List<SoakWindow> early = windows.subList(0, DRIFT_WINDOWS);
+        List<SoakWindow> late = windows.subList(completeWindows - DRIFT_WINDOWS, completeWindows);
+        for (String step : steps()) {
+            long[] before = pooled(early, step);
+            long[] after = pooled(late, step);
+            if (before.length < MIN_SAMPLES || after.length < MIN_SAMPLES) {
+                continue;
+            }
+            double p = MannWhitney.pValueLaterIsGreater(before, after);
+            double medianBefore = median(before);
+            double medianAfter = median(after);
+            double increase = medianBefore > 0 ? medianAfter / medianBefore - 1 : 0;
+            boolean hasDrifted = p < ALPHA && increase >= MIN_INCREASE;
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("step", step);
+            entry.put("earlyMedianMs", round(medianBefore / 1_000_000));
+            entry.put("lateMedianMs", round(medianAfter / 1_000_000));
+            entry.put("increase", round(increase));
+            entry.put("pValue", p);
+            entry.put("drifted", hasDrifted);
+            drift.add(entry);
+            if (hasDrifted) {
+                drifted.add(String.format(Locale.ROOT, "%s median %.1f -> %.1f ms (p=%.2g)",
+                        step, medianBefore / 1_000_000, medianAfter / 1_000_000, p));
+            }
+        }
+    }
+
+    private String driftTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "Soak drift, first vs last %d of %d complete windows (alpha %.3f, min increase %.0f%%):%n",
+                DRIFT_WINDOWS, completeWindows, ALPHA, MIN_INCREASE * 100));
+        for (Map<String, Object> entry : drift) {
+            table.append(String.format(Locale.ROOT, "  %-40s %9.1f -> %9.1f ms  %+6.0f%%  p=%-9.2g %s%n",
+                    entry.get("step"), entry.get("earlyMedianMs"), entry.get("lateMedianMs"),
+                    (double) entry.get("increase") * 100, entry.get("pValue"),
+                    (boolean) entry.get("drifted") ? "DRIFT" : ""));
+        }
+        return table.toString();
+    }
+
+    private String p99Csv() {
+        List<String> steps = new ArrayList<>(steps());
+        StringBuilder csv = new StringBuilder("minute,sessions,failedSessions");
+        steps.forEach(step -> csv.append(',').append(step).append(" p99 ms"));
+        csv.append('\n');
+        for (SoakWindow window : windows) {
+            csv.append(windowLength.multipliedBy(window.index).toSeconds() / 60.0)
+                    .append(',').append(window.sessions)
+                    .append(',').append(window.errors);
+            for (String step : steps) {
+                double p99 = window.percentileMillis(step, 99);
+                csv.append(',').append(Double.isNaN(p99) ? "" : String.format(Locale.ROOT, "%.1f", p99));
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    private TreeSet<String> steps() {
+        TreeSet<String> steps = new TreeSet<>();
+        windows.forEach(window -> steps.addAll(window.latencies.keySet()));
+        return steps;
+    }
+
+    private static long[] pooled(List<SoakWindow> windows, String step) {
+        return windows.stream().flatMapToLong(window -> LongStream.of(window.sorted(step))).toArray();
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,105 @@
+package soak;
+
+import config.Settings;
+import instrumentation.StepListener;
+import instrumentation.StepMetrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Repeats a user session for -Dsoak.duration.minutes (default 30) and records the latency of
+ * every page-object step in windows of -Dsoak.window.seconds (default 300).
+ *
+ * A failed session is counted in its window, the caller's recovery runs, and the loop goes
+ * on; a recovery that fails itself is only logged, the next session will tell. After
+ * -Dsoak.maxErrors failed sessions (default 10) the run is given up, and the report of what
+ * ran so far fails the test when asked for drift. Only steps
+ * that succeeded on the soak thread are recorded, and they go into the windows instead of
+ * the test's step breakdown, which would otherwise hold every step of the run.
+ */
+public class SoakRun {
+
+    static final Duration DURATION = Duration.ofMinutes(Settings.getLong("soak.duration.minutes", "SOAK_DURATION_MINUTES", 30));
+    static final Duration WINDOW = Duration.ofSeconds(
+            Math.max(1, Settings.getLong("soak.window.seconds", "SOAK_WINDOW_SECONDS", 300)));
+    private static final int MAX_ERRORS = Settings.getInt("soak.maxErrors", "SOAK_MAX_ERRORS", 10);
+
+    private final Thread owner = Thread.currentThread();
+    private final long startNanos = System.nanoTime();
+    private final List<SoakWindow> windows = new ArrayList<>();
+    private int errors;
+
+    private SoakRun() {
+    }
+
+    /**
+     * Runs sessions on the current thread until the soak duration is over.
+     *
+     * @param session one realistic user session; throws when it fails
+     * @param recover brings the page back to a state a new session can start from
+     */
+    public static SoakReport run(Runnable session, Runnable recover) {
+        SoakRun run = new SoakRun();
+        StepListener listener = run::stepFinished;
+        AssertionError gaveUp = null;
+        StepMetrics.stopTrace();
+        StepMetrics.addListener(listener);
+        try {
+            System.out.printf(Locale.ROOT, "Soak run for %d min in %d s windows%n",
+                    DURATION.toMinutes(), WINDOW.toSeconds());
+            while (run.elapsedNanos() < DURATION.toNanos()) {
+                try {
+                    session.run();
+                    run.window().sessions++;
+                } catch (RuntimeException | AssertionError e) {
+                    run.window().errors++;
+                    if (++run.errors > MAX_ERRORS) {
+                        gaveUp = new AssertionError("Soak run given up after " + run.errors + " failed sessions", e);
+                        break;
+                    }
+                    System.err.println("Soak session failed: " + e.getMessage());
+                    recover(recover);
+                }
+            }
+        } finally {
+            StepMetrics.removeListener(listener);
+        }
+        int complete = (int) (run.elapsedNanos() / WINDOW.toNanos());
+        return new SoakReport(run.windows, Math.min(complete, run.windows.size()), WINDOW, gaveUp);
+    }
+
+    private static void recover(Runnable recover) {
+        try {
+            recover.run();
+        } catch (RuntimeException | AssertionError e) {
+            System.err.println("Soak recovery failed: " + e.getMessage());
+        }
+    }
+
+    private void stepFinished(String step, long nanos, Throwable failure) {
+        if (failure == null && Thread.currentThread() == owner) {
+            window().record(step, nanos);
+        }
+    }
+
+    /**
+     * The window of the current moment; windows without sessions are kept empty.
+     */
+    private SoakWindow window() {
+        int index = (int) (elapsedNanos() / WINDOW.toNanos());
+        while (windows.size() <= index) {
+            if (!windows.isEmpty()) {
+                System.out.println(windows.get(windows.size() - 1).progressLine(WINDOW));
+            }
+            windows.add(new SoakWindow(windows.size()));
+        }
+        return windows.get(index);
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
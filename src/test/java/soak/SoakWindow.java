@@ -0,0 +1,64 @@
+package soak;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Step latencies, sessions and failed sessions of one time window of a {@link SoakRun}.
+ */
+class SoakWindow {
+
+    final int index;
+    final Map<String, long[]> latencies = new TreeMap<>();
+    private final Map<String, Integer> counts = new TreeMap<>();
+    int sessions;
+    int errors;
+
+    SoakWindow(int index) {
+        this.index = index;
+    }
+
+    void record(String step, long nanos) {
+        int count = counts.getOrDefault(step, 0);
+        long[] values = latencies.computeIfAbsent(step, key -> new long[16]);
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+            latencies.put(step, values);
+        }
+        values[count] = nanos;
+        counts.put(step, count + 1);
+    }
+
+    /**
+     * The step's latencies in this window, in nanoseconds, sorted.
+     */
+    long[] sorted(String step) {
+        long[] values = Arrays.copyOf(latencies.getOrDefault(step, new long[0]), counts.getOrDefault(step, 0));
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds, NaN without samples.
+     */
+    double percentileMillis(String step, double percentile) {
+        long[] values = sorted(step);
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * values.length);
+        return values[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    String progressLine(Duration windowLength) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "Soak window %d (from %.1f min): %d sessions, %d failed",
+                index, windowLength.multipliedBy(index).toSeconds() / 60.0, sessions, errors));
+        for (String step : latencies.keySet()) {
+            line.append(String.format(Locale.ROOT, "; %s p99 %.0f ms", step, percentileMillis(step, 99)));
+        }
+        return line.toString();
+    }
+}
@@ -3,14 +3,17 @@ package tests;
 import com.interviewcards.BaseTest;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.options.AriaRole;
+import flaky.RetryingTest;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.DisplayName;
-import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import pages.LoginPage;
 import pages.enums.LoginSubmitType;
-import utils.TestUserHelper;
+import session.Authenticated;
+import utils.AccountLockout;
+import utils.TestUser;
+import utils.TestUserPool;
 
 import static config.Config.*;
 import static io.qameta.allure.SeverityLevel.CRITICAL;
@@ -39,7 +42,7 @@ public class LoginTest extends BaseTest {
         );
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Severity(CRITICAL)
     @Feature("Successful login")
@@ -55,7 +58,7 @@ public class LoginTest extends BaseTest {
         );
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Form Validation")
     @Story("Server-side email validation")
@@ -74,7 +77,7 @@ public class LoginTest extends BaseTest {
         );
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Form Validation")
     @Story("Empty field validation")
@@ -97,7 +100,7 @@ public class LoginTest extends BaseTest {
         );
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Form Validation")
     @Story("Empty field validation")
@@ -121,7 +124,7 @@ public class LoginTest extends BaseTest {
 
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Form Validation")
     @Story("Empty field validation")
@@ -145,7 +148,7 @@ public class LoginTest extends BaseTest {
 
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Form Validation")
     @Story("Empty field validation")
@@ -175,7 +178,7 @@ public class LoginTest extends BaseTest {
 
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Form Validation")
     @Story("Empty field validation")
@@ -195,7 +198,7 @@ public class LoginTest extends BaseTest {
 
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Security")
     @Story("SQL Injection prevention")
@@ -219,7 +222,7 @@ public class LoginTest extends BaseTest {
 
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Security")
     @Story("SQL Injection prevention")
@@ -248,7 +251,7 @@ public class LoginTest extends BaseTest {
         );
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Security")
     @Story("Locked-After-Multiple-Failure")
@@ -256,38 +259,41 @@ public class LoginTest extends BaseTest {
     @DisplayName("Login with Locked-After-Multiple-Failure account should be rejected")
     @Description("Test verifies that Locked-After-Multiple-Failure attempts in login credentials are properly rejected")
     void loginWithLockedAfterMultipleFailure() {
-        String testUser = TestUserHelper.registerTestUser();
-        assertNotNull(testUser, "Test user should be registered successfully");
-
-        loginPage = new LoginPage(page);
-        loginPage = loginPage.lockUserAfterMultipleFailureAttempts(testUser, "wrong_password");
-
-        assertTrue(
-                page.url().contains("/login"),
-                "Login locked user should be rejected - user should remain on login page"
-        );
-
-        assertEquals(
-                TOO_MANY_FAILED_ATTEMPTS_HINT,
-                loginPage.getLockedUserHint(),
-                "Error message should indicate account is locked"
-        );
-
-        TestUserHelper.deleteUser(testUser);
-
+        TestUser testUser = TestUserPool.take();
+        try {
+            loginPage = new LoginPage(page);
+            // The failed attempts are only the precondition: send them through the API and keep
+            // the UI for the attempt under test, unless the API cannot be used
+            if (AccountLockout.lockViaApi(testUser.getUsername(), "wrong_password")) {
+                loginPage = loginPage.loginWithLockedAccount(testUser.getUsername(), "wrong_password");
+            } else {
+                loginPage = loginPage.lockUserAfterMultipleFailureAttempts(testUser.getUsername(), "wrong_password");
+            }
+
+            assertTrue(
+                    page.url().contains("/login"),
+                    "Login locked user should be rejected - user should remain on login page"
+            );
+
+            assertEquals(
+                    TOO_MANY_FAILED_ATTEMPTS_HINT,
+                    loginPage.getLockedUserHint(),
+                    "Error message should indicate account is locked"
+            );
+        } finally {
+            TestUserPool.release(testUser);
+        }
     }
 
-    @Test
+    @RetryingTest
     @Epic("Login")
     @Feature("Session")
     @Story("Session persistence")
     @Severity(CRITICAL)
     @DisplayName("User remains logged in after page refresh")
     @Description("Verifies that user session persists after browser page refresh")
+    @Authenticated
     void userRemainsLoggedInAfterRefresh() {
-        loginPage = new LoginPage(page);
-        mainPage = loginPage.login(EMAIL, PASSWORD, LoginSubmitType.CLICK);
-
         assertTrue(
                 mainPage.isLogoutButtonDisplayed(),
                 "User should be logged in before refresh"
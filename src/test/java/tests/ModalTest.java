@@ -2,13 +2,21 @@ package tests;
 
 import com.interviewcards.BaseTest;
 import components.ModalComponent;
-import config.Config;
+import flaky.RetryingTest;
 import io.qameta.allure.*;
+import leaks.LeakDetector;
+import network.NetworkCondition;
 import org.junit.jupiter.api.*;
-import pages.LoginPage;
-import pages.MainPage;
 import assertions.ModalAssertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import pages.LoginPage;
 import pages.enums.LoginSubmitType;
+import session.Authenticated;
+
+import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
+import static config.Config.EMAIL;
+import static config.Config.PASSWORD;
 
 @Epic("UI Components")
 @Feature("Modal")
@@ -19,13 +27,10 @@ public class ModalTest extends BaseTest {
     @Story("Open add card modal")
     @Description("Test verifies that the add card modal opens correctly with proper title")
     @Severity(SeverityLevel.NORMAL)
-    @Test
+    @RetryingTest
+    @Authenticated
     void openModalTest() {
 
-        // login
-        mainPage = new LoginPage(page)
-                .login(Config.EMAIL, Config.PASSWORD, LoginSubmitType.CLICK);
-
         // open modal
         modalComponent = mainPage.clickAddCard();
 
@@ -35,4 +40,38 @@ public class ModalTest extends BaseTest {
         modalAssert.beVisible();
         modalAssert.haveTitle(modalComponent.getModalTitle());
     }
-}
\ No newline at end of file
+
+    @Epic("Cards")
+    @Feature("Modal")
+    @Story("Open add card modal on a slow network")
+    @Description("Test verifies that a user on a slow link can log in and open the add card modal")
+    @Severity(SeverityLevel.NORMAL)
+    @ParameterizedTest(name = "Log in and open add card modal on {0}")
+    @EnumSource(value = NetworkCondition.class, names = {"THREE_G", "SLOW_4G", "HIGH_LATENCY"})
+    void openModalOnSlowNetworkTest(NetworkCondition condition) {
+        emulateNetwork(condition);
+
+        // log in and open modal
+        loginPage = new LoginPage(page);
+        mainPage = loginPage.login(EMAIL, PASSWORD, LoginSubmitType.CLICK);
+        modalComponent = mainPage.clickAddCard();
+
+        // assertions
+        new ModalAssertions(modalComponent).beVisible();
+    }
+
+    @Epic("Cards")
+    @Feature("Modal")
+    @Story("Open and cancel add card modal repeatedly")
+    @Description("Test verifies that opening and cancelling the add card modal does not grow the JS heap, DOM or listeners")
+    @Severity(SeverityLevel.NORMAL)
+    @RetryingTest
+    @Authenticated
+    void openAndCancelModalDoesNotLeakTest() {
+        new LeakDetector(page).assertNoGrowth("Modal open/cancel", () -> {
+            modalComponent = mainPage.clickAddCard();
+            modalComponent.clickCancel();
+            assertThat(modalComponent.getRoot()).isHidden();
+        });
+    }
+}
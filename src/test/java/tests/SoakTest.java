@@ -0,0 +1,73 @@
+package tests;
+
+import com.interviewcards.BaseTest;
+import config.Settings;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import pages.LoginPage;
+import pages.enums.LoginSubmitType;
+import soak.SoakRun;
+import utils.TestUser;
+import utils.TestUserPool;
+
+import java.util.Random;
+
+/**
+ * Runs only with the soak profile: mvn test -Psoak
+ *
+ * The sessions run as a throwaway {@link TestUserPool} account, so the cards they save are
+ * deleted with it instead of piling up in the shared test account.
+ */
+@Epic("Reliability")
+@Feature("Soak")
+@Tag("soak")
+public class SoakTest extends BaseTest {
+
+    private static final double SAVE_RATIO = Double.parseDouble(Settings.get("soak.saveRatio", "SOAK_SAVE_RATIO", "0.5"));
+
+    private final Random random = new Random(1);
+    private TestUser user;
+    private int session;
+
+    @Story("Repeat user sessions for hours")
+    @Description("Test repeats log in, add or discard a card, reload and log out, and verifies that step latencies do not drift upwards over the run")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    void userSessionLatencyDoesNotDriftTest() {
+        user = TestUserPool.take();
+        try {
+            SoakRun.run(this::userSession, this::recover)
+                    .publish()
+                    .assertNoDrift();
+        } finally {
+            TestUserPool.release(user);
+        }
+    }
+
+    private void userSession() {
+        session++;
+        loginPage = new LoginPage(page);
+        mainPage = loginPage.login(user.getUsername(), user.getPassword(), LoginSubmitType.CLICK);
+
+        modalComponent = mainPage.clickAddCard();
+        modalComponent.fillQuestion("Soak question " + session);
+        modalComponent.fillAnswer("Soak answer " + session);
+        if (random.nextDouble() < SAVE_RATIO) {
+            modalComponent.clickSave();
+        } else {
+            modalComponent.clickCancel();
+        }
+
+        mainPage.reload();
+        loginPage = mainPage.logout();
+    }
+
+    /**
+     * Drops whatever a failed session left behind: cookies, and local storage of the page's origin.
+     */
+    private void recover() {
+        context.clearCookies();
+        page.evaluate("() => localStorage.clear()");
+    }
+}
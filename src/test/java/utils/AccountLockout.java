@@ -0,0 +1,95 @@
+package utils;
+
+import config.Config;
+import config.Settings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puts an account into the locked state through the auth API instead of the login form.
+ *
+ * The failed attempts are sent concurrently by default (-Dlockout.parallel=false sends
+ * them one after another for servers that do not count concurrent failures reliably).
+ * Only 401 counts as a failed login and 429 as already locked. Any other status (e.g. 400,
+ * 403, 404 or a 5xx) means the API cannot be used for this, and the caller falls back to
+ * the UI flow. Attempts lost to network errors are repeated sequentially; if the full
+ * number of failures still does not get through, the caller falls back as well.
+ */
+public class AccountLockout {
+
+    /**
+     * Failed logins after which the app locks an account; the same number the UI flow uses.
+     */
+    public static final int FAILED_ATTEMPTS = Config.LOCKOUT_ATTEMPTS;
+
+    private static final boolean PARALLEL = Settings.getBoolean("lockout.parallel", "LOCKOUT_PARALLEL", true);
+
+    private static final int HTTP_UNAUTHORIZED = 401;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final AuthApiClient API = new AuthApiClient();
+
+    private AccountLockout() {
+    }
+
+    /**
+     * Sends the failed logins for the account through the API.
+     *
+     * @return false if the API has no usable login endpoint or the failures did not get
+     * through, in which case the caller should fall back to the UI flow
+     */
+    public static boolean lockViaApi(String login, String wrongPassword) {
+        List<CompletableFuture<ApiResponse>> attempts = new ArrayList<>();
+        for (int i = 0; i < FAILED_ATTEMPTS; i++) {
+            CompletableFuture<ApiResponse> attempt = API.loginAsync(login, wrongPassword)
+                    .exceptionally(e -> null);
+            if (!PARALLEL) {
+                attempt.join();
+            }
+            attempts.add(attempt);
+        }
+
+        int counted = 0;
+        for (CompletableFuture<ApiResponse> attempt : attempts) {
+            ApiResponse response = attempt.join();
+            if (response == null) {
+                continue;
+            }
+            if (response.status() == HTTP_TOO_MANY_REQUESTS) {
+                return true;
+            }
+            if (response.status() != HTTP_UNAUTHORIZED) {
+                return unusable(login, "status " + response.status());
+            }
+            counted++;
+        }
+
+        // Top up attempts lost to network errors, one at a time
+        for (int retry = 0; counted < FAILED_ATTEMPTS && retry < FAILED_ATTEMPTS; retry++) {
+            ApiResponse response;
+            try {
+                response = API.login(login, wrongPassword);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (response.status() == HTTP_TOO_MANY_REQUESTS) {
+                return true;
+            }
+            if (response.status() != HTTP_UNAUTHORIZED) {
+                return unusable(login, "status " + response.status());
+            }
+            counted++;
+        }
+        if (counted < FAILED_ATTEMPTS) {
+            return unusable(login, "only " + counted + " of " + FAILED_ATTEMPTS + " failed logins got through");
+        }
+        return true;
+    }
+
+    private static boolean unusable(String login, String reason) {
+        System.err.println("⚠️ Login API unusable (" + reason + "), locking " + login + " through the UI");
+        return false;
+    }
+}
@@ -0,0 +1,70 @@
+package utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Status code and parsed JSON body of an auth API call.
+ */
+public class ApiResponse {
+
+    private final int status;
+    private final JsonObject body;
+
+    ApiResponse(int status, String rawBody) {
+        this.status = status;
+        this.body = parse(rawBody);
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public JsonObject body() {
+        return body;
+    }
+
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * First human-readable error in the body: either "error" or any entry of "errors".
+     */
+    public String error() {
+        if (body.has("error") && !body.get("error").isJsonNull()) {
+            return text(body.get("error"));
+        }
+        if (body.has("errors") && body.get("errors").isJsonObject()) {
+            for (var entry : body.getAsJsonObject("errors").entrySet()) {
+                if (!entry.getValue().isJsonNull()) {
+                    return text(entry.getValue());
+                }
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Strings and numbers as they are, objects and arrays (e.g. {"message": ...}) as JSON.
+     */
+    private static String text(JsonElement element) {
+        return element.isJsonPrimitive() ? element.getAsString() : element.toString();
+    }
+
+    private static JsonObject parse(String rawBody) {
+        try {
+            JsonElement element = JsonParser.parseString(rawBody);
+            return element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+        } catch (JsonParseException e) {
+            return new JsonObject();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HTTP " + status + " " + body;
+    }
+}
@@ -0,0 +1,102 @@
+package utils;
+
+import com.google.gson.Gson;
+import config.Config;
+import config.Settings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * In-process client for the auth API.
+ *
+ * One {@link HttpClient} is shared by the whole JVM, so connections (and TLS sessions)
+ * are kept alive and reused across calls and threads. Every call has a blocking and an
+ * async variant; the blocking one simply joins the async one.
+ */
+public class AuthApiClient {
+
+    public static final String REGISTER_PATH = "/api/auth/register";
+    public static final String DELETE_PATH = "/api/auth/delete";
+    public static final String LOGIN_PATH = "/api/auth/login";
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(
+            Settings.getLong("api.timeout.seconds", "API_TIMEOUT_SECONDS", 10));
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private static final Gson GSON = new Gson();
+
+    private final String baseUrl;
+
+    public AuthApiClient() {
+        this(Config.BASE_URL);
+    }
+
+    public AuthApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public ApiResponse register(String username, String email, String password) {
+        return join(registerAsync(username, email, password));
+    }
+
+    public CompletableFuture<ApiResponse> registerAsync(String username, String email, String password) {
+        return send("POST", REGISTER_PATH, Map.of("username", username, "email", email, "password", password));
+    }
+
+    public ApiResponse delete(String username) {
+        return join(deleteAsync(username));
+    }
+
+    public CompletableFuture<ApiResponse> deleteAsync(String username) {
+        return send("DELETE", DELETE_PATH, Map.of("username", username));
+    }
+
+    public ApiResponse login(String login, String password) {
+        return join(loginAsync(login, password));
+    }
+
+    public CompletableFuture<ApiResponse> loginAsync(String login, String password) {
+        return send("POST", LOGIN_PATH, Map.of("username", login, "password", password));
+    }
+
+    private CompletableFuture<ApiResponse> send(String method, String path, Map<String, String> payload) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(GSON.toJson(payload)))
+                .build();
+
+        return HTTP.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> new ApiResponse(response.statusCode(), response.body()));
+    }
+
+    private static ApiResponse join(CompletableFuture<ApiResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+}
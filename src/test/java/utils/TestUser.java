@@ -0,0 +1,34 @@
+package utils;
+
+/**
+ * Throwaway account registered for a single test.
+ */
+public class TestUser {
+
+    private final String username;
+    private final String email;
+    private final String password;
+
+    public TestUser(String username, String email, String password) {
+        this.username = username;
+        this.email = email;
+        this.password = password;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
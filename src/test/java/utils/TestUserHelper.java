@@ -1,10 +1,7 @@
 package utils;
 
-import config.Config;
-
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.InputStreamReader;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for test user generation and registration.
@@ -12,242 +9,94 @@ import java.io.InputStreamReader;
  */
 public class TestUserHelper {
 
+    public static final String USERNAME_PREFIX = "testlockuser";
+    public static final String DEFAULT_PASSWORD = "testpass123";
+
+    private static final AuthApiClient API = new AuthApiClient();
+
     /**
-     * Registers a new user via the API using curl.
-     * Generates a unique username with timestamp to avoid conflicts.
-     * Format: testlockuser{timestamp}
-     *
-     * @return The registered username, or null if registration failed
+     * Random per JVM, so concurrent runs never hand out the same names.
      */
-    public static String registerTestUser() {
-        long timestamp = System.currentTimeMillis();
-        String username = "testlockuser" + timestamp;
-        String email = "testlockuser" + timestamp + "@test.com";
-        String password = "testpass123";
+    private static final String RUN_ID = Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36 * 36), 36);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
 
-        return registerTestUser(username, email, password);
+    /**
+     * Generates a username that is unique across threads and concurrent runs.
+     * Format: testlockuser{timestamp}{runId}n{sequence}
+     */
+    public static String uniqueUsername() {
+        return USERNAME_PREFIX + System.currentTimeMillis() + RUN_ID + "n" + SEQUENCE.incrementAndGet();
     }
 
     /**
-     * Registers a new user via the API using curl with specified credentials.
+     * Registers a new user via the API.
+     * Generates a unique username (see {@link #uniqueUsername()}) to avoid conflicts.
      *
-     * @param username the username to register
-     * @param email the email to register
-     * @param password the password to register
      * @return The registered username, or null if registration failed
      */
-    public static String registerTestUser(String username, String email, String password) {
-        try {
-            // Find the script in the project root
-            File scriptFile = new File("register-test-user.sh");
-            if (!scriptFile.exists()) {
-                // Try absolute path from workspace
-                String workspacePath = System.getProperty("user.dir");
-                scriptFile = new File(workspacePath, "register-test-user.sh");
-            }
-
-            if (!scriptFile.exists() || !scriptFile.canExecute()) {
-                // Fallback: use curl directly
-                return registerUserViaCurl(username, email, password);
-            }
-
-            ProcessBuilder pb = new ProcessBuilder(
-                scriptFile.getAbsolutePath(),
-                username,
-                email,
-                password
-            );
-
-            // Set working directory to script location
-            pb.directory(scriptFile.getParentFile());
-
-            Process process = pb.start();
-
-            // Read output
-            BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream())
-            );
-            StringBuilder output = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
+    public static String registerTestUser() {
+        String username = uniqueUsername();
+        String email = username + "@test.com";
 
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
-                System.out.println("✅ User '" + username + "' registered successfully");
-                return username;
-            } else {
-                System.err.println("⚠️ Failed to register user '" + username + "' (exit code: " + exitCode + ")");
-                System.err.println("Output: " + output.toString());
-                return null;
-            }
-        } catch (Exception e) {
-            System.err.println("⚠️ Error registering user '" + username + "': " + e.getMessage());
-            // Try fallback method
-            return registerUserViaCurl(username, email, password);
-        }
+        return registerTestUser(username, email, DEFAULT_PASSWORD);
     }
 
     /**
-     * Registers a user directly via curl command (fallback method).
+     * Registers a new user via the API with specified credentials.
      *
      * @param username the username to register
      * @param email the email to register
      * @param password the password to register
      * @return The registered username, or null if registration failed
      */
-    private static String registerUserViaCurl(String username, String email, String password) {
+    public static String registerTestUser(String username, String email, String password) {
         try {
-            String baseUrl = Config.BASE_URL;
-            String jsonPayload = String.format(
-                "{\"username\":\"%s\",\"email\":\"%s\",\"password\":\"%s\"}",
-                username, email, password
-            );
-
-            ProcessBuilder pb = new ProcessBuilder(
-                "curl", "-s", "-X", "POST",
-                baseUrl + "/api/auth/register",
-                "-H", "Content-Type: application/json",
-                "-d", jsonPayload,
-                "-w", "\nHTTP_CODE:%{http_code}"
-            );
+            ApiResponse response = API.register(username, email, password);
 
-            Process process = pb.start();
-
-            BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream())
-            );
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line).append("\n");
-            }
-
-            int exitCode = process.waitFor();
-            String responseStr = response.toString();
-
-            // Check HTTP status code
-            if (responseStr.contains("HTTP_CODE:201")) {
+            if (response.status() == 201) {
                 System.out.println("✅ User '" + username + "' registered successfully via API");
                 return username;
-            } else if (responseStr.contains("HTTP_CODE:400") && responseStr.contains("already taken")) {
+            } else if (response.status() == 400 && response.error().contains("already taken")) {
                 System.err.println("⚠️ Username '" + username + "' is already taken");
                 return null;
             } else {
-                System.err.println("⚠️ Failed to register user '" + username + "' (exit code: " + exitCode + ")");
-                System.err.println("Response: " + responseStr);
+                System.err.println("⚠️ Failed to register user '" + username + "': " + response);
                 return null;
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Error registering user via curl '" + username + "': " + e.getMessage());
+            System.err.println("⚠️ Error registering user '" + username + "': " + e.getMessage());
             return null;
         }
     }
 
     /**
-     * Deletes a test user via the API using curl.
+     * Deletes a test user via the API.
      *
      * @param username the username of the user to delete
+     * @return true if the user is gone: deleted (2xx) or not found (404)
      */
-    public static void deleteUser(String username) {
+    public static boolean deleteUser(String username) {
         if (username == null || username.isEmpty()) {
             System.err.println("⚠️ Cannot delete user: username is null or empty");
-            return;
-        }
-
-        try {
-            // Try to find a delete script first (if it exists)
-            File scriptFile = new File("delete-test-user.sh");
-            if (!scriptFile.exists()) {
-                String workspacePath = System.getProperty("user.dir");
-                scriptFile = new File(workspacePath, "delete-test-user.sh");
-            }
-
-            if (scriptFile.exists() && scriptFile.canExecute()) {
-                ProcessBuilder pb = new ProcessBuilder(
-                    scriptFile.getAbsolutePath(),
-                    username
-                );
-
-                pb.directory(scriptFile.getParentFile());
-
-                Process process = pb.start();
-
-                // Read output
-                BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream())
-                );
-                StringBuilder output = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                }
-
-                int exitCode = process.waitFor();
-                if (exitCode == 0) {
-                    System.out.println("✅ User '" + username + "' deleted successfully");
-                    return;
-                } else {
-                    System.err.println("⚠️ Failed to delete user '" + username + "' via script (exit code: " + exitCode + ")");
-                    System.err.println("Output: " + output.toString());
-                    // Fallback to curl
-                }
-            }
-
-            // Fallback: use curl directly
-            deleteUserViaCurl(username);
-        } catch (Exception e) {
-            System.err.println("⚠️ Error deleting user '" + username + "': " + e.getMessage());
-            // Try fallback method
-            deleteUserViaCurl(username);
+            return false;
         }
-    }
 
-    /**
-     * Deletes a user directly via curl command (fallback method).
-     *
-     * @param username the username of the user to delete
-     */
-    private static void deleteUserViaCurl(String username) {
         try {
-            String baseUrl = Config.BASE_URL;
-            String jsonPayload = String.format("{\"username\":\"%s\"}", username);
+            ApiResponse response = API.delete(username);
 
-            ProcessBuilder pb = new ProcessBuilder(
-                "curl", "-s", "-X", "DELETE",
-                baseUrl + "/api/auth/delete",
-                "-H", "Content-Type: application/json",
-                "-d", jsonPayload,
-                "-w", "\nHTTP_CODE:%{http_code}"
-            );
-
-            Process process = pb.start();
-
-            BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream())
-            );
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line).append("\n");
-            }
-
-            int exitCode = process.waitFor();
-            String responseStr = response.toString();
-
-            // Check HTTP status code - 200 or 204 typically indicate success
-            if (responseStr.contains("HTTP_CODE:200") || responseStr.contains("HTTP_CODE:204")) {
+            if (response.isSuccess()) {
                 System.out.println("✅ User '" + username + "' deleted successfully via API");
-            } else if (responseStr.contains("HTTP_CODE:404")) {
+                return true;
+            } else if (response.status() == 404) {
                 System.out.println("ℹ️ User '" + username + "' not found (may have already been deleted)");
+                return true;
             } else {
-                System.err.println("⚠️ Failed to delete user '" + username + "' (exit code: " + exitCode + ")");
-                System.err.println("Response: " + responseStr);
+                System.err.println("⚠️ Failed to delete user '" + username + "': " + response);
+                return false;
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Error deleting user via curl '" + username + "': " + e.getMessage());
+            System.err.println("⚠️ Error deleting user '" + username + "': " + e.getMessage());
+            return false;
         }
     }
 }
-
@@ -0,0 +1,98 @@
+package utils;
+
+import config.Settings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only record of the test accounts this machine registered and has not deleted yet.
+ *
+ * The API has no way to list users, so this file is how a later run finds accounts leaked
+ * by a crashed or killed one. Each line is "+" (registered) or "-" (deleted), a timestamp,
+ * the base URL and the username. Access is guarded by a file lock because parallel
+ * shards and forks share the file.
+ */
+class TestUserLedger {
+
+    private static final Path FILE = Paths.get(Settings.get("user.ledger", "USER_LEDGER", ".test-users.ledger"));
+
+    private TestUserLedger() {
+    }
+
+    static void recordRegistered(String baseUrl, String username) {
+        append("+", baseUrl, username);
+    }
+
+    static void recordDeleted(String baseUrl, String username) {
+        append("-", baseUrl, username);
+    }
+
+    /**
+     * Returns accounts on the given base URL that were registered before the cutoff and never
+     * deleted, and compacts the file down to the accounts that are still alive.
+     * Younger accounts are left alone: they may belong to a run that is still going.
+     */
+    static List<String> staleAccounts(String baseUrl, long registeredBeforeMillis) {
+        return withLock(channel -> {
+            Map<String, String[]> alive = new LinkedHashMap<>();
+            String content = new String(Channels.newInputStream(channel).readAllBytes(), StandardCharsets.UTF_8);
+            for (String line : content.split("\n")) {
+                String[] fields = line.split("\t");
+                if (fields.length != 4) {
+                    continue;
+                }
+                String key = fields[2] + "\t" + fields[3];
+                if ("+".equals(fields[0])) {
+                    alive.put(key, fields);
+                } else {
+                    alive.remove(key);
+                }
+            }
+
+            List<String> stale = new ArrayList<>();
+            StringBuilder compacted = new StringBuilder();
+            for (String[] fields : alive.values()) {
+                compacted.append(String.join("\t", fields)).append('\n');
+                if (fields[2].equals(baseUrl) && Long.parseLong(fields[1]) < registeredBeforeMillis) {
+                    stale.add(fields[3]);
+                }
+            }
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(compacted.toString().getBytes(StandardCharsets.UTF_8)), 0);
+            return stale;
+        });
+    }
+
+    private static void append(String marker, String baseUrl, String username) {
+        String line = marker + "\t" + System.currentTimeMillis() + "\t" + baseUrl + "\t" + username + "\n";
+        withLock(channel -> channel.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)), channel.size()));
+    }
+
+    // synchronized: FileLock only excludes other processes, threads of this JVM would overlap
+    private static synchronized <T> T withLock(LockedAction<T> action) {
+        try (FileChannel channel = FileChannel.open(FILE,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            return action.run(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot update test user ledger " + FILE.toAbsolutePath(), e);
+        }
+    }
+
+    private interface LockedAction<T> {
+        T run(FileChannel channel) throws IOException;
+    }
+}
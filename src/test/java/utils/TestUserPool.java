@@ -0,0 +1,163 @@
+package utils;
+
+import config.Config;
+import config.Settings;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pool of throwaway accounts registered ahead of time, for tests that need a fresh user
+ * (e.g. the lockout test, which burns the account).
+ *
+ * When the launcher session opens, the pool sweeps stale testlockuser* accounts left in the
+ * {@link TestUserLedger} by earlier runs and registers -Duser.pool.size accounts concurrently.
+ * {@link #take()} hands them out from a lock-free queue and tops the pool up in the background.
+ * Accounts given back with {@link #release(TestUser)}, and any still leased or unused when
+ * the session ends, are deleted by a background janitor.
+ *
+ * Registered through META-INF/services/org.junit.platform.launcher.LauncherSessionListener.
+ */
+public class TestUserPool implements LauncherSessionListener {
+
+    private static final int SIZE = Math.max(0, Settings.getInt("user.pool.size", "USER_POOL_SIZE", 2));
+    private static final Duration STALE_AFTER = Duration.ofMinutes(
+            Settings.getLong("user.pool.stale.minutes", "USER_POOL_STALE_MINUTES", 60));
+
+    private static final Queue<TestUser> READY = new ConcurrentLinkedQueue<>();
+    private static final Set<TestUser> LEASED = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private static final ExecutorService JANITOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "test-user-janitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static AuthApiClient api;
+
+    /**
+     * Takes a registered account for the calling test. Waits for an in-flight registration
+     * if the pool is empty, and registers one inline only when nothing is on its way.
+     */
+    public static TestUser take() {
+        TestUser user = READY.poll();
+        while (user == null && IN_FLIGHT.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            user = READY.poll();
+        }
+        if (user == null) {
+            user = registerNow();
+        }
+        LEASED.add(user);
+        refill(1);
+        return user;
+    }
+
+    /**
+     * Gives an account back; it is deleted in the background. Safe to call with null.
+     */
+    public static void release(TestUser user) {
+        if (user != null && LEASED.remove(user)) {
+            JANITOR.execute(() -> delete(user.getUsername()));
+        }
+    }
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        api = new AuthApiClient();
+        sweepStaleAccounts();
+        refill(SIZE);
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        if (api == null) {
+            return;
+        }
+        while (IN_FLIGHT.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        List<TestUser> leftovers = new ArrayList<>(LEASED);
+        LEASED.clear();
+        TestUser unused;
+        while ((unused = READY.poll()) != null) {
+            leftovers.add(unused);
+        }
+        leftovers.forEach(user -> JANITOR.execute(() -> delete(user.getUsername())));
+
+        JANITOR.shutdown();
+        try {
+            if (!JANITOR.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("⚠️ Test user janitor did not finish; the next run will sweep the rest");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sweepStaleAccounts() {
+        long cutoff = System.currentTimeMillis() - STALE_AFTER.toMillis();
+        for (String username : TestUserLedger.staleAccounts(Config.BASE_URL, cutoff)) {
+            JANITOR.execute(() -> delete(username));
+        }
+    }
+
+    private static void refill(int count) {
+        if (api == null) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            TestUser user = newUser();
+            IN_FLIGHT.incrementAndGet();
+            TestUserLedger.recordRegistered(Config.BASE_URL, user.getUsername());
+            api.registerAsync(user.getUsername(), user.getEmail(), user.getPassword())
+                    .whenComplete((response, error) -> {
+                        if (error == null && response.status() == 201) {
+                            READY.add(user);
+                        } else {
+                            System.err.println("⚠️ Failed to pre-register user '" + user + "': "
+                                    + (error != null ? error.getMessage() : response));
+                        }
+                        IN_FLIGHT.decrementAndGet();
+                    });
+        }
+    }
+
+    private static TestUser registerNow() {
+        TestUser user = newUser();
+        TestUserLedger.recordRegistered(Config.BASE_URL, user.getUsername());
+        String registered = TestUserHelper.registerTestUser(user.getUsername(), user.getEmail(), user.getPassword());
+        if (registered == null) {
+            throw new IllegalStateException("Could not register test user " + user);
+        }
+        return user;
+    }
+
+    private static TestUser newUser() {
+        String username = TestUserHelper.uniqueUsername();
+        return new TestUser(username, username + "@test.com", TestUserHelper.DEFAULT_PASSWORD);
+    }
+
+    /**
+     * Only a confirmed deletion leaves the ledger; a failed one stays there for the next sweep.
+     */
+    private static void delete(String username) {
+        if (TestUserHelper.deleteUser(username)) {
+            TestUserLedger.recordDeleted(Config.BASE_URL, username);
+        }
+    }
+}